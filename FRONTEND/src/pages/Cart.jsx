@@ -67,10 +67,10 @@ const Cart = () => {
     const updatedItem = cart.find((c) => c.id === cartId);
     if (!updatedItem) return;
     try {
-      const res = await fetch(`${API_BASE}/cart`, {
-        method: "POST",
+      const res = await fetch(`${API_BASE}/cart/${userId}/${cartId}`, {
+        method: "PUT",
         headers: { "Content-Type": "application/json" },
-        body: JSON.stringify({ ...updatedItem, quantity: newQuantity }),
+        body: JSON.stringify({ quantity: newQuantity }),
       });
       if (res.ok) {
         setCart((prev) =>
@@ -87,7 +87,7 @@ const Cart = () => {
 
   const removeFromCart = async (cartId) => {
     try {
-      await fetch(`${API_BASE}/cart/${cartId}`, { method: "DELETE" });
+      await fetch(`${API_BASE}/cart/${userId}/${cartId}`, { method: "DELETE" });
       setCart((prev) => prev.filter((item) => item.id !== cartId));
       window.dispatchEvent(new Event("cartUpdated"));
     } catch (err) {
@@ -110,15 +110,11 @@ if (
   return;
 }
     try {
-      const res = await fetch(`${API_BASE}/orders/create`, {
+      const res = await fetch(`${API_BASE}/cart/${userId}/checkout`, {
         method: "POST",
         headers: { "Content-Type": "application/json" },
         body: JSON.stringify({
-          customer: { id: parseInt(userId, 10) },
-          items: itemsToCheckout.map((item) => ({
-            menu: { id: item.menu.id },
-            quantity: item.quantity,
-          })),
+          menuIds: itemsToCheckout.map((item) => item.menu.id),
         }),
       });
       const result = await res.json();
@@ -155,7 +151,7 @@ const confirmCheckout = async () => {
 
   setMessage("✅ Checkout successful!");
   setShowReceipt(true);
-  itemsToCheckout.forEach((item) => removeFromCart(item.id));
+  setCart((prev) => prev.filter((item) => !selectedItems.includes(item.id)));
   setSelectedItems([]);
   setPendingOrder(null);
   setShowConfirm(false);
@@ -1,4 +1,4 @@
-import React, { useEffect, useState } from "react";
+import React, { useEffect, useRef, useState } from "react";
 
 const API_BASE = "http://localhost:8080/orders";
 const statusSteps = [
@@ -9,10 +9,43 @@ const statusSteps = [
   "DELIVERED",
 ];
 
+const newestFirst = (a, b) =>
+  new Date(b.createdAt) - new Date(a.createdAt) || b.id - a.id;
+
+// Newer copies replace older ones, so polled status changes show up
+const mergeOrders = (current, incoming) => {
+  const byId = new Map(current.map((o) => [o.id, o]));
+  incoming.forEach((o) => byId.set(o.id, o));
+  return [...byId.values()].sort(newestFirst);
+};
+
 const CustomerOrders = () => {
   const [orders, setOrders] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  // Once older pages are loaded the cursor follows them, not the polled first page
+  const loadedMore = useRef(false);
   const userId = localStorage.getItem("userId");
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const res = await fetch(
+        `${API_BASE}/customer/${userId}/history?cursor=${encodeURIComponent(
+          nextCursor
+        )}`
+      );
+      const data = await res.json();
+      loadedMore.current = true;
+      setOrders((prev) => mergeOrders(prev, data.data || []));
+      setNextCursor(data.nextCursor || null);
+    } catch (err) {
+      console.error(err);
+    }
+    setLoadingMore(false);
+  };
+
   useEffect(() => {
     if (!userId) return;
 
@@ -20,7 +53,10 @@ const CustomerOrders = () => {
       try {
         const res = await fetch(`${API_BASE}/customer/${userId}/history`);
         const data = await res.json();
-        setOrders(data.data || []);
+        setOrders((prev) => mergeOrders(prev, data.data || []));
+        if (!loadedMore.current) {
+          setNextCursor(data.nextCursor || null);
+        }
       } catch (err) {
         console.error(err);
       }
@@ -123,6 +159,18 @@ const CustomerOrders = () => {
               </div>
             );
           })}
+
+          {nextCursor && (
+            <div className="flex justify-center pt-2">
+              <button
+                onClick={loadMore}
+                disabled={loadingMore}
+                className="bg-white border border-blue-500 text-blue-600 hover:bg-blue-50 disabled:opacity-50 px-4 py-2 rounded-lg shadow-sm transition-all"
+              >
+                {loadingMore ? "Loading..." : "Load more"}
+              </button>
+            </div>
+          )}
         </div>
       )}
     </div>
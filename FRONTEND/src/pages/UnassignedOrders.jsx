@@ -3,25 +3,54 @@ import { Truck, RefreshCw } from "lucide-react";
 import { motion, AnimatePresence } from "framer-motion";
 
 const API_BASE = `${import.meta.env.VITE_API_BASE_URL}/courier-assignments`;
+const PAGE_SIZE = 50;
 
 const UnassignedOrders = () => {
   const [orders, setOrders] = useState([]);
   const [couriers, setCouriers] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [page, setPage] = useState(0);
+  const [hasNext, setHasNext] = useState(false);
   const [selectedCourier, setSelectedCourier] = useState({});
 
+  const fetchPage = async (pageNumber) => {
+    const res = await fetch(
+      `${API_BASE}/unassigned-orders?page=${pageNumber}&size=${PAGE_SIZE}`
+    );
+    return res.json();
+  };
+
   const fetchUnassigned = async () => {
     setLoading(true);
     try {
-      const res = await fetch(`${API_BASE}/unassigned-orders`);
-      const data = await res.json();
+      const data = await fetchPage(0);
       setOrders(data.data || []);
+      setPage(0);
+      setHasNext(Boolean(data.hasNext));
     } catch (error) {
       console.error("Error fetching unassigned orders:", error);
     }
     setLoading(false);
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const data = await fetchPage(page + 1);
+      // Orders assigned meanwhile shift the pages, so skip any already shown
+      setOrders((prev) => {
+        const seen = new Set(prev.map((o) => o.id));
+        return [...prev, ...(data.data || []).filter((o) => !seen.has(o.id))];
+      });
+      setPage(page + 1);
+      setHasNext(Boolean(data.hasNext));
+    } catch (error) {
+      console.error("Error fetching more unassigned orders:", error);
+    }
+    setLoadingMore(false);
+  };
+
   const fetchCouriers = async () => {
     try {
       const res = await fetch(`${API_BASE}/available-couriers`);
@@ -135,6 +164,18 @@ const UnassignedOrders = () => {
           </AnimatePresence>
         </div>
       )}
+
+      {!loading && hasNext && (
+        <div className="flex justify-center mt-6">
+          <button
+            onClick={loadMore}
+            disabled={loadingMore}
+            className="bg-white border border-blue-500 text-blue-600 hover:bg-blue-50 disabled:opacity-50 px-4 py-2 rounded-lg shadow-sm transition-all w-full sm:w-auto"
+          >
+            {loadingMore ? "Loading..." : "Load more"}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
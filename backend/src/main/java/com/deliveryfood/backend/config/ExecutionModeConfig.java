@@ -0,0 +1,74 @@
+package com.deliveryfood.backend.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Puts a semaphore sized to the connection pool in front of the DataSource
+ * when requests run on virtual threads ({@code spring.threads.virtual.enabled},
+ * honoured by Boot on Java 21 and newer), so blocking JDBC, not the thread
+ * count, sets the limit. Setting {@code app.execution.db-permits} enables the
+ * semaphore on platform threads too; its free permits and waiters are
+ * published as {@code db.admission.*} gauges.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionModeConfig.class);
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("app.execution.db-permits", Integer.class, 0);
+                if (permits <= 0 && !Threading.VIRTUAL.isActive(environment)) {
+                    return bean;
+                }
+                if (permits <= 0) {
+                    permits = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                long timeout = environment.getProperty("app.execution.db-acquire-timeout-ms", Long.class, 30000L);
+                log.info("Admitting at most {} concurrent database connections", permits);
+                return new BoundedDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                if (!dataSource.isWrapperFor(BoundedDataSource.class)) {
+                    return;
+                }
+                BoundedDataSource bounded = dataSource.unwrap(BoundedDataSource.class);
+                Gauge.builder("db.admission.available", bounded, BoundedDataSource::availablePermits)
+                        .description("Free database admission permits")
+                        .register(registry);
+                Gauge.builder("db.admission.waiting", bounded, BoundedDataSource::queueLength)
+                        .description("Callers waiting for a database admission permit")
+                        .register(registry);
+            } catch (SQLException e) {
+                log.warn("Could not register database admission metrics", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.deliveryfood.backend.config;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Counts the SQL statements and rows each request runs and reports them in
+ * the {@value #STATEMENTS_HEADER} and {@value #ROWS_HEADER} response headers
+ * and a log line. Headers are written when the response commits, so for
+ * bodies larger than the serializer's buffer they miss statements issued
+ * while the rest is written (lazy loading); the log line has the final count.
+ * Requests over {@code app.query-count.warn-threshold} statements log at WARN.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+    public static final String ROWS_HEADER = "X-Query-Rows";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final int warnThreshold;
+
+    public QueryCountFilter(int warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCountingDataSource.Stats stats = QueryCountingDataSource.start();
+        HeaderWritingResponse wrapped = new HeaderWritingResponse(response, stats);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            QueryCountingDataSource.stop();
+            wrapped.writeHeaders();
+            String query = request.getQueryString();
+            String target = request.getMethod() + " " + request.getRequestURI() + (query != null ? "?" + query : "");
+            if (warnThreshold > 0 && stats.statements() > warnThreshold) {
+                log.warn("{} ran {} statements ({} rows) in {} ms", target, stats.statements(), stats.rows(),
+                        stats.elapsedMillis());
+            } else {
+                log.debug("{} ran {} statements ({} rows) in {} ms", target, stats.statements(), stats.rows(),
+                        stats.elapsedMillis());
+            }
+        }
+    }
+
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+        private final QueryCountingDataSource.Stats stats;
+        private boolean written;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        HeaderWritingResponse(HttpServletResponse response, QueryCountingDataSource.Stats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, Integer.toString(stats.statements()));
+            setHeader(ROWS_HEADER, Long.toString(stats.rows()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeaderWritingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        private final class HeaderWritingOutputStream extends ServletOutputStream {
+            private final ServletOutputStream target;
+
+            HeaderWritingOutputStream(ServletOutputStream target) {
+                this.target = target;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                writeHeaders();
+                target.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writeHeaders();
+                target.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writeHeaders();
+                target.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writeHeaders();
+                target.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return target.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                target.setWriteListener(listener);
+            }
+        }
+    }
+}
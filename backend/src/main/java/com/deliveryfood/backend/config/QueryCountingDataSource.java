@@ -0,0 +1,115 @@
+package com.deliveryfood.backend.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts executed statements and fetched rows for the current thread. Work
+ * outside {@link #start()} and {@link #stop()} is not counted; with counting
+ * off the only cost is a thread-local lookup per call. A batch counts as one
+ * statement.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    public static Stats start() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(Connection.class, super.getConnection(username, password));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            Stats stats = CURRENT.get();
+            if (stats != null) {
+                if (target instanceof Statement && method.getName().startsWith("execute")) {
+                    stats.statements++;
+                } else if (target instanceof ResultSet && method.getName().equals("next")
+                        && Boolean.TRUE.equals(result)) {
+                    stats.rows++;
+                }
+            }
+            if (result instanceof CallableStatement statement) {
+                return counting(CallableStatement.class, statement);
+            } else if (result instanceof PreparedStatement statement) {
+                return counting(PreparedStatement.class, statement);
+            } else if (result instanceof Statement statement) {
+                return counting(Statement.class, statement);
+            } else if (result instanceof ResultSet resultSet) {
+                return counting(ResultSet.class, resultSet);
+            }
+            return result;
+        });
+    }
+
+    public static final class Stats {
+        private final long startedAt = System.nanoTime();
+        private int statements;
+        private long rows;
+
+        public int statements() {
+            return statements;
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        public long elapsedMillis() {
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        }
+    }
+}
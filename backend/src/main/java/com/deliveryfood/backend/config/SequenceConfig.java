@@ -0,0 +1,48 @@
+package com.deliveryfood.backend.config;
+
+import java.sql.DatabaseMetaData;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Orders and order items moved from IDENTITY to pooled sequences so Hibernate
+ * can batch their inserts. On MySQL those sequences are emulated with
+ * single-row tables that start at 1, so they are pushed past the ids already
+ * handed out by AUTO_INCREMENT before the first insert.
+ */
+@Configuration
+@DependsOn("entityManagerFactory")
+public class SequenceConfig {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_item_seq", "order_item");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() throws Exception {
+        String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return;
+        }
+
+        for (Map.Entry<String, String> entry : SEQUENCES.entrySet()) {
+            Long maxId = jdbcTemplate.queryForObject(
+                    "select coalesce(max(id), 0) from " + entry.getValue(), Long.class);
+            long next = maxId + 1 + ALLOCATION_SIZE;
+            jdbcTemplate.update("update " + entry.getKey() + " set next_val = ? where next_val < ?", next, next);
+        }
+    }
+}
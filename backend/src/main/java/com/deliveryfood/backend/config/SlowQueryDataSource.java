@@ -0,0 +1,97 @@
+package com.deliveryfood.backend.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.deliveryfood.backend.service.SlowQueryLog;
+
+/**
+ * Times every statement execution and hands it to the {@link SlowQueryLog}.
+ * Prepared statements remember the SQL they were prepared with; plain
+ * statements report the SQL passed to {@code execute}.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final Supplier<SlowQueryLog> logProvider;
+    /** Resolved on first use; the log bean may not exist yet when the DataSource is wrapped. */
+    private volatile SlowQueryLog log;
+
+    public SlowQueryDataSource(DataSource target, Supplier<SlowQueryLog> log) {
+        super(target);
+        this.logProvider = log;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(Connection.class, super.getConnection(), null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(Connection.class, super.getConnection(username, password), null);
+    }
+
+    private SlowQueryLog log() {
+        SlowQueryLog resolved = log;
+        if (resolved == null) {
+            resolved = logProvider.get();
+            log = resolved;
+        }
+        return resolved;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T timed(Class<T> type, T target, String preparedSql) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            boolean execute = target instanceof Statement && name.startsWith("execute");
+            long start = execute ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (execute) {
+                    long elapsed = System.nanoTime() - start;
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    log().record(sql != null ? sql : name, elapsed);
+                }
+            }
+            if (target instanceof Connection && args != null && args.length > 0 && args[0] instanceof String sql) {
+                if (result instanceof CallableStatement statement) {
+                    return timed(CallableStatement.class, statement, sql);
+                } else if (result instanceof PreparedStatement statement) {
+                    return timed(PreparedStatement.class, statement, sql);
+                }
+            }
+            if (result instanceof Statement statement && !(result instanceof PreparedStatement)) {
+                return timed(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+}
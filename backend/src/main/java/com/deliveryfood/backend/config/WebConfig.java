@@ -13,6 +13,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(QueryCountFilter.STATEMENTS_HEADER, QueryCountFilter.ROWS_HEADER)
                 .maxAge(3600);
     }
 }
\ No newline at end of file
@@ -1,37 +1,124 @@
 package com.deliveryfood.backend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.deliveryfood.backend.dto.CartLineView;
 import com.deliveryfood.backend.model.Cart;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.User;
 import com.deliveryfood.backend.repository.CartRepository;
+import com.deliveryfood.backend.repository.UserRepository;
+import com.deliveryfood.backend.service.CartStore;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/cart")
 public class CartController {
 
     @Autowired
-    private CartRepository cartRepository; 
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartStore cartStore;
 
     @GetMapping
     public List<Cart> getAllCart() {
+        // As of the last scheduled write-back, at most app.cart.flush-interval-ms behind
         return cartRepository.findAll();
     }
 
     @GetMapping("/{userId}")
-    public List<Cart> getCartByUser(@PathVariable Long userId) {
-        return cartRepository.findByUserId(userId);
+    public List<CartLineView> getCartByUser(@PathVariable Long userId) {
+        return cartStore.lines(userId);
     }
 
     @PostMapping
-    public Cart addToCart(@RequestBody Cart cart) {
-        return cartRepository.save(cart);
+    public ResponseEntity<?> addToCart(@RequestBody Cart cart) {
+        if (cart.getUser() == null || cart.getMenu() == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "User and menu are required"));
+        }
+        int quantity = cart.getQuantity() > 0 ? cart.getQuantity() : 1;
+        try {
+            return ResponseEntity.ok(cartStore.add(cart.getUser().getId(), cart.getMenu().getId(), quantity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{userId}/{menuId}")
+    public Map<String, Object> updateQuantity(@PathVariable Long userId,
+                                              @PathVariable Long menuId,
+                                              @RequestBody Map<String, Integer> body) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            CartLineView line = cartStore.set(userId, menuId, body.getOrDefault("quantity", 0));
+            response.put("message", line != null ? "Cart item updated" : "Cart item removed");
+            response.put("data", line);
+        } catch (IllegalArgumentException e) {
+            response.put("message", "Failed to update cart: " + e.getMessage());
+            response.put("data", null);
+        }
+        return response;
+    }
+
+    @DeleteMapping("/{userId}/{menuId}")
+    public Map<String, Object> removeItem(@PathVariable Long userId, @PathVariable Long menuId) {
+        cartStore.remove(userId, menuId);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("message", "Cart item removed");
+        response.put("data", null);
+        return response;
+    }
+
+    @PostMapping("/{userId}/checkout")
+    public Map<String, Object> checkout(@PathVariable Long userId,
+                                        @RequestBody(required = false) Map<String, List<Long>> body) {
+        Map<String, Object> response = new LinkedHashMap<>();
+
+        User customer = userRepository.findById(userId).orElse(null);
+        if (customer == null) {
+            response.put("message", "Customer with ID " + userId + " not found");
+            response.put("data", null);
+            return response;
+        }
+        if (customer.getStreet() == null || customer.getCity() == null || customer.getPostalCode() == null) {
+            response.put("message", "Customer address is incomplete. Please update your address.");
+            response.put("data", null);
+            return response;
+        }
+
+        try {
+            Order order = cartStore.checkout(customer, body != null ? body.get("menuIds") : null);
+
+            Map<String, Object> dataWithAddress = new LinkedHashMap<>();
+            dataWithAddress.put("order", order);
+            dataWithAddress.put("address", Map.of(
+                    "street", customer.getStreet(),
+                    "city", customer.getCity(),
+                    "postalCode", customer.getPostalCode(),
+                    "phone", customer.getPhone()));
+
+            response.put("message", "Order successfully created");
+            response.put("data", dataWithAddress);
+        } catch (Exception e) {
+            response.put("message", "Failed to checkout: " + e.getMessage());
+            response.put("data", null);
+        }
+        return response;
     }
 
     @DeleteMapping("/{id}")
     public void deleteCartItem(@PathVariable Long id) {
-        cartRepository.deleteById(id);
+        // Write-back keeps row ids stable, so any id a client holds still names its line
+        cartRepository.findById(id).ifPresent(cart ->
+                cartStore.remove(cart.getUser().getId(), cart.getMenu().getId()));
     }
 }
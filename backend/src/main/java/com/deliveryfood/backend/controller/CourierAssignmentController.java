@@ -1,22 +1,34 @@
 package com.deliveryfood.backend.controller;
 
+import com.deliveryfood.backend.dto.PendingOrderView;
 import com.deliveryfood.backend.model.CourierAssignment;
 import com.deliveryfood.backend.model.Order;
 import com.deliveryfood.backend.model.User;
 import com.deliveryfood.backend.repository.CourierAssignmentRepository;
 import com.deliveryfood.backend.repository.OrderRepository;
-import com.deliveryfood.backend.repository.UserRepository;
+import com.deliveryfood.backend.service.CourierAssignmentService;
+import com.deliveryfood.backend.service.CourierRegistryService;
+import com.deliveryfood.backend.service.OrderStatusService;
+import com.deliveryfood.backend.service.UserIdentityCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.Instant;
 import java.util.*;
 
 @RestController
 @RequestMapping("/courier-assignments")
 public class CourierAssignmentController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private CourierAssignmentRepository courierAssignmentRepository;
 
@@ -24,109 +36,80 @@ public class CourierAssignmentController {
     private OrderRepository orderRepository;
 
     @Autowired
-    private UserRepository userRepository;
-
-    @PostMapping("/assign/{orderId}/{courierId}")
-    @Transactional
-    public Map<String, Object> assignCourier(@PathVariable Long orderId, @PathVariable Long courierId) {
-        Map<String, Object> response = new LinkedHashMap<>();
+    private CourierRegistryService courierRegistryService;
 
-        try {
-            Optional<Order> orderOpt = orderRepository.findById(orderId);
-            Optional<User> courierOpt = userRepository.findById(courierId);
+    @Autowired
+    private CourierAssignmentService courierAssignmentService;
 
-            if (orderOpt.isEmpty() || courierOpt.isEmpty()) {
-                response.put("message", "Order or courier not found");
-                response.put("data", null);
-                return response;
-            }
+    @Autowired
+    private OrderStatusService orderStatusService;
 
-            Order order = orderOpt.get();
-            User courier = courierOpt.get();
+    @Autowired
+    private UserIdentityCache userIdentityCache;
 
-            if (courier.getRole() != User.Role.COURIER) {
-                response.put("message", "Selected user is not a courier!");
-                response.put("data", null);
-                return response;
-            }
+    @PostMapping("/assign/{orderId}/{courierId}")
+    public ResponseEntity<Map<String, Object>> assignCourier(@PathVariable Long orderId, @PathVariable Long courierId) {
+        return assignmentResponse(courierAssignmentService, orderId, courierId);
+    }
 
-            List<CourierAssignment> existing = courierAssignmentRepository.findByOrder(order);
-            if (!existing.isEmpty()) {
-                response.put("message", "Order already has a courier assigned!");
-                response.put("data", existing.get(0));
-                return response;
+    static ResponseEntity<Map<String, Object>> assignmentResponse(CourierAssignmentService service, Long orderId,
+                                                                  Long courierId) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        HttpStatus status = HttpStatus.OK;
+        try {
+            CourierAssignmentService.Result result = service.assign(orderId, courierId);
+            switch (result.outcome()) {
+                case NOT_A_COURIER -> {
+                    status = HttpStatus.BAD_REQUEST;
+                    response.put("message", "Selected user is not a courier!");
+                }
+                case NOT_FOUND -> {
+                    status = HttpStatus.NOT_FOUND;
+                    response.put("message", "Order or courier not found");
+                }
+                case CONFLICT -> {
+                    status = HttpStatus.CONFLICT;
+                    response.put("message", result.assignment() != null
+                            ? "Order already has a courier assigned!"
+                            : "Order is no longer waiting for a courier");
+                }
+                case ALREADY_ASSIGNED -> response.put("message", "Courier already assigned to this order");
+                case ASSIGNED -> response.put("message", "Courier successfully assigned to order");
             }
-
-            CourierAssignment assignment = new CourierAssignment();
-            assignment.setOrder(order);
-            assignment.setCourier(courier);
-            assignment.setAssignedAt(Instant.now());
-
-            CourierAssignment saved = courierAssignmentRepository.save(assignment);
-
-            order.setStatus(Order.Status.ASSIGNED);
-            orderRepository.save(order);
-
-            response.put("message", "Courier successfully assigned to order");
-            response.put("data", saved);
-        } catch (Exception e) {
-            response.put("message", "Failed to assign courier: " + e.getMessage());
+            response.put("data", result.assignment());
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            status = HttpStatus.CONFLICT;
+            response.put("message", "Order already has a courier assigned!");
             response.put("data", null);
         }
-
-        return response;
+        return ResponseEntity.status(status).body(response);
     }
 
     @GetMapping("/unassigned-orders")
-    public Map<String, Object> getUnassignedOrders() {
+    public Map<String, Object> getUnassignedOrders(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "asc") String order) {
         Map<String, Object> response = new LinkedHashMap<>();
-        List<Order> allOrders = orderRepository.findAll();
-        List<Map<String, Object>> unassigned = new ArrayList<>();
-
-        for (Order o : allOrders) {
-            List<CourierAssignment> assignments = courierAssignmentRepository.findByOrder(o);
-            if (assignments.isEmpty()) {
-                Map<String, Object> orderData = new HashMap<>();
-                orderData.put("id", o.getId());
-                orderData.put("status", o.getStatus());
-                orderData.put("totalPrice", o.getTotalPrice());
-                orderData.put("createdAt", o.getCreatedAt());
-
-                User customer = o.getCustomer();
-                if (customer != null) {
-                    orderData.put("customerName", customer.getName());
-                    orderData.put("customerStreet", customer.getStreet());
-                    orderData.put("customerCity", customer.getCity());
-                    orderData.put("customerPostalCode", customer.getPostalCode());
-                    orderData.put("customerPhone", customer.getPhone());
-                }
 
-                unassigned.add(orderData);
-            }
-        }
+        Sort.Direction direction = order.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by(direction, "createdAt").and(Sort.by(direction, "id")));
+        Slice<PendingOrderView> unassigned = orderRepository.findPendingOrders(pageable);
 
         response.put("message", "Unassigned orders retrieved successfully");
-        response.put("data", unassigned);
+        response.put("data", unassigned.getContent());
+        response.put("page", unassigned.getNumber());
+        response.put("size", unassigned.getSize());
+        response.put("hasNext", unassigned.hasNext());
         return response;
     }
 
     @GetMapping("/available-couriers")
     public Map<String, Object> getAvailableCouriers() {
         Map<String, Object> response = new LinkedHashMap<>();
-
-        List<User> couriers = userRepository.findByRole(User.Role.COURIER);
-
-        List<User> available = new ArrayList<>();
-        for (User c : couriers) {
-            boolean busy = c.getAssignments().stream()
-                    .anyMatch(a -> a.getOrder().getStatus() == Order.Status.ASSIGNED
-                            || a.getOrder().getStatus() == Order.Status.ON_DELIVERY);
-            if (!busy)
-                available.add(c);
-        }
-
         response.put("message", "Available couriers retrieved successfully");
-        response.put("data", available);
+        response.put("data", courierRegistryService.availableCouriers());
         return response;
     }
 
@@ -134,14 +117,13 @@ public class CourierAssignmentController {
     public Map<String, Object> getOrdersForCourier(@PathVariable Long courierId) {
         Map<String, Object> response = new LinkedHashMap<>();
 
-        Optional<User> courierOpt = userRepository.findById(courierId);
-        if (courierOpt.isEmpty() || courierOpt.get().getRole() != User.Role.COURIER) {
+        if (!userIdentityCache.hasRole(courierId, User.Role.COURIER)) {
             response.put("message", "Courier not found");
             response.put("data", null);
             return response;
         }
 
-        List<CourierAssignment> assignments = courierAssignmentRepository.findByCourier(courierOpt.get());
+        List<CourierAssignment> assignments = courierAssignmentRepository.findByCourierId(courierId);
         List<Map<String, Object>> orders = new ArrayList<>();
 
         for (CourierAssignment a : assignments) {
@@ -170,70 +152,65 @@ public class CourierAssignmentController {
     }
 
     @PutMapping("/update-status/{orderId}/{courierId}")
-    @Transactional
-    public Map<String, Object> updateOrderStatus(
+    public ResponseEntity<Map<String, Object>> updateOrderStatus(
             @PathVariable Long orderId,
             @PathVariable Long courierId,
             @RequestParam("status") Order.Status status) {
 
-        Map<String, Object> response = new LinkedHashMap<>();
-
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
-        Optional<User> courierOpt = userRepository.findById(courierId);
-
-        if (orderOpt.isEmpty() || courierOpt.isEmpty()) {
+        if (userIdentityCache.find(courierId).isEmpty()) {
+            Map<String, Object> response = new LinkedHashMap<>();
             response.put("message", "Order or courier not found");
             response.put("data", null);
-            return response;
-        }
-
-        Order order = orderOpt.get();
-
-        List<CourierAssignment> assignments = courierAssignmentRepository.findByOrder(order);
-        boolean assignedToCourier = assignments.stream()
-                .anyMatch(a -> a.getCourier().getId().equals(courierId));
-
-        if (!assignedToCourier) {
-            response.put("message", "This order is not assigned to this courier");
-            response.put("data", null);
-            return response;
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
-
-        order.setStatus(status);
-        orderRepository.save(order);
-
-        response.put("message", "Order status updated successfully");
-        response.put("data", order);
-        return response;
+        return statusResponse(orderStatusService.advance(orderId, courierId, status));
     }
 
     @PutMapping("/update-status/{orderId}")
-    public Map<String, Object> updateOrderStatus(
+    public ResponseEntity<Map<String, Object>> updateOrderStatus(
             @PathVariable Long orderId,
             @RequestBody Map<String, String> body) {
 
-        Map<String, Object> response = new LinkedHashMap<>();
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
-
-        if (orderOpt.isEmpty()) {
-            response.put("message", "Order not found");
+        Order.Status status;
+        try {
+            status = Order.Status.valueOf(body.get("status"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("message", "Failed to update status: unknown status " + body.get("status"));
             response.put("data", null);
-            return response;
+            return ResponseEntity.badRequest().body(response);
         }
+        return statusResponse(orderStatusService.advance(orderId, null, status));
+    }
 
-        Order order = orderOpt.get();
-        String newStatus = body.get("status");
-        try {
-            order.setStatus(Order.Status.valueOf(newStatus));
-            orderRepository.save(order);
-            response.put("message", "Order status updated successfully");
-            response.put("data", order);
-        } catch (Exception e) {
-            response.put("message", "Failed to update status: " + e.getMessage());
+    static ResponseEntity<Map<String, Object>> statusResponse(OrderStatusService.Result result) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        HttpStatus status = HttpStatus.OK;
+        switch (result.outcome()) {
+            case NOT_FOUND -> {
+                status = HttpStatus.NOT_FOUND;
+                response.put("message", "Order not found");
+            }
+            case NOT_ASSIGNED -> {
+                status = HttpStatus.FORBIDDEN;
+                response.put("message", "This order is not assigned to this courier");
+            }
+            case ILLEGAL -> {
+                status = HttpStatus.CONFLICT;
+                response.put("message", "Cannot move order from " + result.from() + " to " + result.to());
+            }
+            case UNCHANGED -> response.put("message", "Order is already " + result.to());
+            case CHANGED -> response.put("message", "Order status updated successfully");
+        }
+        if (status == HttpStatus.OK) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", result.orderId());
+            data.put("status", result.to());
+            response.put("data", data);
+        } else {
             response.put("data", null);
         }
-
-        return response;
+        return ResponseEntity.status(status).body(response);
     }
 
     @GetMapping("/customer-orders/{customerId}")
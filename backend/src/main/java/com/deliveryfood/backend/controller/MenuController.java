@@ -1,15 +1,16 @@
 package com.deliveryfood.backend.controller;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,18 +19,33 @@ import com.deliveryfood.backend.model.Menu;
 import com.deliveryfood.backend.model.Restaurant;
 import com.deliveryfood.backend.repository.MenuRepository;
 import com.deliveryfood.backend.repository.RestaurantRepository;
+import com.deliveryfood.backend.service.ImageStorageService;
+import com.deliveryfood.backend.service.MenuCatalogService;
+import com.deliveryfood.backend.service.MenuSearchService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/menus")
 public class MenuController {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     @Autowired
     private MenuRepository menuRepository;
 
     @Autowired
     private RestaurantRepository restaurantRepository;
 
-    private final Path uploadDir = Paths.get("uploads"); 
+    @Autowired
+    private MenuCatalogService menuCatalogService;
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
 
     // ------------------- CREATE -------------------
     @PostMapping("/create")
@@ -47,14 +63,12 @@ public class MenuController {
             menu.setRestaurant(restaurant);
 
             if (imageFile != null && !imageFile.isEmpty()) {
-                Files.createDirectories(uploadDir); 
-                String filename = System.currentTimeMillis() + "_" + imageFile.getOriginalFilename();
-                Path filepath = uploadDir.resolve(filename);
-                Files.write(filepath, imageFile.getBytes());
-                menu.setImageUrl("/menus/uploads/" + filename);
+                menu.setImageUrl(imageStorageService.store(imageFile));
             }
 
             Menu saved = menuRepository.save(menu);
+            menuCatalogService.refresh();
+            menuSearchService.index(saved);
             response.put("message", "Menu successfully created");
             response.put("data", saved);
         } catch (Exception e) {
@@ -88,14 +102,12 @@ public class MenuController {
             }
 
             if (imageFile != null && !imageFile.isEmpty()) {
-                Files.createDirectories(uploadDir);
-                String filename = System.currentTimeMillis() + "_" + imageFile.getOriginalFilename();
-                Path filepath = uploadDir.resolve(filename);
-                Files.write(filepath, imageFile.getBytes());
-                existing.setImageUrl("/menus/uploads/" + filename);
+                existing.setImageUrl(imageStorageService.store(imageFile));
             }
 
             Menu updated = menuRepository.save(existing);
+            menuCatalogService.refresh();
+            menuSearchService.index(updated);
             response.put("message", "Menu updated successfully");
             response.put("data", updated);
         } catch (Exception e) {
@@ -107,11 +119,39 @@ public class MenuController {
 
     // ------------------- GET ALL -------------------
     @GetMapping("/get")
-    public Map<String, Object> getAllMenus() {
+    public ResponseEntity<byte[]> getAllMenus(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cachedResponse(menuCatalogService.current().all(), ifNoneMatch);
+    }
+
+    // ------------------- GET BY RESTAURANT -------------------
+    @GetMapping("/restaurant/{restaurantId}")
+    public ResponseEntity<byte[]> getMenusByRestaurant(@PathVariable Long restaurantId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cachedResponse(menuCatalogService.restaurantMenus(restaurantId), ifNoneMatch);
+    }
+
+    // ------------------- SEARCH -------------------
+    @GetMapping("/search")
+    public Map<String, Object> searchMenus(@RequestParam("q") String query,
+                                           @RequestParam(required = false) Long restaurantId,
+                                           @RequestParam(defaultValue = "20") int limit) {
         Map<String, Object> response = new LinkedHashMap<>();
-        List<Menu> menus = menuRepository.findAll();
-        response.put("message", "Successfully retrieved all menus");
-        response.put("data", menus);
+        Map<Long, Menu> menus = menuCatalogService.current().byId();
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (MenuSearchService.Hit hit : menuSearchService.search(query, restaurantId, Math.min(limit, MAX_SEARCH_RESULTS))) {
+            Menu menu = menus.get(hit.menuId());
+            if (menu != null) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("menu", menu);
+                result.put("score", hit.score());
+                results.add(result);
+            }
+        }
+
+        response.put("message", "Found " + results.size() + " menus for '" + query + "'");
+        response.put("data", results);
         return response;
     }
 
@@ -119,7 +159,7 @@ public class MenuController {
     @GetMapping("/get/{id}")
     public Map<String, Object> getMenuById(@PathVariable Long id) {
         Map<String, Object> response = new LinkedHashMap<>();
-        Menu menu = menuRepository.findById(id).orElse(null);
+        Menu menu = menuCatalogService.current().byId().get(id);
         response.put("message", menu != null ? "Menu found" : "Menu not found");
         response.put("data", menu);
         return response;
@@ -135,22 +175,35 @@ public class MenuController {
             response.put("data", null);
         } else {
             menuRepository.delete(menu);
+            menuCatalogService.refresh();
+            menuSearchService.remove(id);
             response.put("message", "Menu deleted successfully");
             response.put("data", menu);
         }
         return response;
     }
 
+    private ResponseEntity<byte[]> cachedResponse(MenuCatalogService.CachedBody body, String ifNoneMatch) {
+        if (body.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(body.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(body.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.json());
+    }
+
     // ------------------- SERVE IMAGE -------------------
     @GetMapping("/uploads/{filename:.+}")
-    public ResponseEntity<Resource> serveFile(@PathVariable String filename) throws Exception {
-        Path file = uploadDir.resolve(filename);
-        Resource resource = new UrlResource(file.toUri());
-        if (resource.exists() || resource.isReadable()) {
-            return ResponseEntity.ok().body(resource);
-        } else {
-            throw new RuntimeException("Could not read file: " + filename);
-        }
+    public void serveFile(@PathVariable String filename,
+                          @RequestParam(value = "w", required = false) Integer width,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        imageStorageService.serve(filename, width, request, response);
     }
 
 }
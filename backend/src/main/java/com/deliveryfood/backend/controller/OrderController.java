@@ -1,18 +1,47 @@
 package com.deliveryfood.backend.controller;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import com.deliveryfood.backend.dto.ArchivedItem;
+import com.deliveryfood.backend.dto.ArchivedOrder;
+import com.deliveryfood.backend.dto.OrderCursor;
+import com.deliveryfood.backend.dto.OrderItemRow;
+import com.deliveryfood.backend.dto.OrderSummaryRow;
 import com.deliveryfood.backend.model.*;
 import com.deliveryfood.backend.repository.*;
+import com.deliveryfood.backend.service.CourierAssignmentService;
+import com.deliveryfood.backend.service.CourierRegistryService;
+import com.deliveryfood.backend.service.OrderAnalyticsStore;
+import com.deliveryfood.backend.service.OrderArchive;
+import com.deliveryfood.backend.service.OrderIntakeService;
+import com.deliveryfood.backend.service.OrderStatusService;
+import com.deliveryfood.backend.service.PriceBook;
+import com.deliveryfood.backend.service.RevenueRollupService;
+import com.deliveryfood.backend.service.UserIdentityCache;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
 
+    private static final int MAX_HISTORY_PAGE = 100;
+
+    private static final Comparator<OrderSummaryRow> HISTORY_ORDER = Comparator
+            .comparing(OrderSummaryRow::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(OrderSummaryRow::id, Comparator.reverseOrder());
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -23,10 +52,31 @@ public class OrderController {
     private UserRepository userRepository;
 
     @Autowired
-    private MenuRepository menuRepository;
+    private CourierAssignmentService courierAssignmentService;
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private OrderAnalyticsStore orderAnalyticsStore;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private PriceBook priceBook;
+
+    @Autowired
+    private CourierRegistryService courierRegistryService;
 
     @Autowired
-    private CourierAssignmentRepository courierAssignmentRepository;
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private OrderArchive orderArchive;
 
     // ================= CREATE ORDER =================
     @PostMapping("/create")
@@ -46,7 +96,6 @@ public class OrderController {
                 response.put("data", null);
                 return response;
             }
-            order.setCustomer(customer);
 
             if (customer.getStreet() == null || customer.getCity() == null || customer.getPostalCode() == null) {
                 response.put("message", "Customer address is incomplete. Please update your address.");
@@ -54,40 +103,7 @@ public class OrderController {
                 return response;
             }
 
-            Order savedOrder = orderRepository.save(order);
-
-            double subtotal = 0.0;
-            Set<Long> restoIds = new HashSet<>();
-
-            if (order.getItems() != null) {
-                for (OrderItem item : order.getItems()) {
-                    if (item.getMenu() != null && item.getMenu().getId() != null) {
-                        Menu menu = menuRepository.findById(item.getMenu().getId())
-                                .orElseThrow(() -> new RuntimeException(
-                                        "Menu with ID " + item.getMenu().getId() + " not found"));
-
-                        item.setMenu(menu);
-                        item.setOrder(savedOrder);
-
-                        item.setPrice(menu.getPrice());
-                        double totalItem = menu.getPrice() * item.getQuantity();
-                        item.setTotalPriceItem(totalItem);
-                        subtotal += totalItem;
-
-                        if (menu.getRestaurant() != null) {
-                            restoIds.add(menu.getRestaurant().getId());
-                        }
-
-                        orderItemRepository.save(item);
-                    }
-                }
-            }
-
-            double deliveryFee = !restoIds.isEmpty() ? 5000 + (restoIds.size() - 1) * 2000 : 0.0;
-
-            savedOrder.setDeliveryFee(deliveryFee);
-            savedOrder.setTotalPrice(subtotal + deliveryFee);
-            savedOrder = orderRepository.save(savedOrder);
+            Order savedOrder = orderIntakeService.placeOrder(customer, order.getItems());
 
             Map<String, Object> dataWithAddress = new LinkedHashMap<>();
             dataWithAddress.put("order", savedOrder);
@@ -108,6 +124,44 @@ public class OrderController {
         return response;
     }
 
+    // ================= QUOTE =================
+    @PostMapping("/quote")
+    public ResponseEntity<Map<String, Object>> quoteOrder(@RequestBody Order order) {
+        Map<String, Object> response = new LinkedHashMap<>();
+
+        PriceBook.Quote quote;
+        try {
+            quote = priceBook.quote(order.getItems());
+        } catch (IllegalArgumentException e) {
+            response.put("message", "Failed to quote order: " + e.getMessage());
+            response.put("data", null);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>(quote.lines().size());
+        for (PriceBook.Line line : quote.lines()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("menuId", line.menu().getId());
+            item.put("name", line.menu().getName());
+            item.put("quantity", line.quantity());
+            item.put("price", line.price());
+            item.put("totalPriceItem", line.total());
+            items.add(item);
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("items", items);
+        data.put("restaurantCount", quote.restaurantCount());
+        data.put("subtotal", quote.subtotal());
+        data.put("deliveryFee", quote.deliveryFee());
+        data.put("totalPrice", quote.total());
+        data.put("priceVersion", quote.version());
+
+        response.put("message", "Order successfully quoted");
+        response.put("data", data);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/get")
     public Map<String, Object> getAllOrders() {
         Map<String, Object> response = new LinkedHashMap<>();
@@ -133,29 +187,33 @@ public class OrderController {
     }
 
     @PutMapping("/update/{id}")
-    public Map<String, Object> updateOrder(@PathVariable Long id, @RequestBody Order orderDetails) {
+    public ResponseEntity<Map<String, Object>> updateOrder(@PathVariable Long id, @RequestBody Order orderDetails) {
         Map<String, Object> response = new LinkedHashMap<>();
-        Order existing = orderRepository.findById(id).orElse(null);
 
-        if (existing == null) {
-            response.put("message", "Order with ID " + id + " not found");
+        boolean totals = orderDetails.getTotalPrice() != null || orderDetails.getDeliveryFee() != null;
+        if (orderDetails.getStatus() == null && !totals) {
+            response.put("message", "Nothing to update for order with ID " + id);
             response.put("data", null);
-        } else {
-            if (orderDetails.getStatus() != null) {
-                existing.setStatus(orderDetails.getStatus());
-            }
-            if (orderDetails.getTotalPrice() != null) {
-                existing.setTotalPrice(orderDetails.getTotalPrice());
-            }
-            if (orderDetails.getDeliveryFee() != null) {
-                existing.setDeliveryFee(orderDetails.getDeliveryFee());
-            }
+            return ResponseEntity.badRequest().body(response);
+        }
 
-            Order updated = orderRepository.save(existing);
-            response.put("message", "Order with ID " + id + " successfully updated");
-            response.put("data", updated);
+        OrderStatusService.Update update;
+        try {
+            update = orderStatusService.update(id, orderDetails.getStatus(), orderDetails.getTotalPrice(),
+                    orderDetails.getDeliveryFee());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            response.put("message", "Order with ID " + id + " was changed concurrently, please retry");
+            response.put("data", null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         }
-        return response;
+        if (update.order() == null) {
+            // Refused transition, missing order, or a status-only edit
+            return CourierAssignmentController.statusResponse(update.transition());
+        }
+
+        response.put("message", "Order with ID " + id + " successfully updated");
+        response.put("data", update.order());
+        return ResponseEntity.ok(response);
     }
 
     @DeleteMapping("/delete/{id}")
@@ -168,6 +226,9 @@ public class OrderController {
             response.put("data", null);
         } else {
             orderRepository.delete(order);
+            revenueRollupService.remove(order.getCreatedAt(), order.getTotalPrice());
+            courierRegistryService.orderRemoved(id);
+            orderAnalyticsStore.orderRemoved(id);
             response.put("message", "Order with ID " + id + " successfully deleted");
             response.put("data", order);
         }
@@ -176,122 +237,140 @@ public class OrderController {
 
     // ================= ASSIGN COURIER =================
     @PostMapping("/{orderId}/assign/{courierId}")
-    public Map<String, Object> assignCourier(@PathVariable Long orderId, @PathVariable Long courierId) {
-        Map<String, Object> response = new LinkedHashMap<>();
-
-        Order order = orderRepository.findById(orderId).orElse(null);
-        User courier = userRepository.findById(courierId).orElse(null);
-
-        if (order == null) {
-            response.put("message", "Order not found");
-            response.put("data", null);
-            return response;
-        }
-        if (courier == null || courier.getRole() != User.Role.COURIER) {
-            response.put("message", "Courier not found or invalid");
-            response.put("data", null);
-            return response;
-        }
-
-        CourierAssignment assignment = new CourierAssignment();
-        assignment.setOrder(order);
-        assignment.setCourier(courier);
-
-        order.setCourierAssignment(assignment);
-
-        courierAssignmentRepository.save(assignment);
-        orderRepository.save(order); 
-
-        response.put("message", "Courier assigned successfully");
-        response.put("data", assignment);
-        return response;
+    public ResponseEntity<Map<String, Object>> assignCourier(@PathVariable Long orderId, @PathVariable Long courierId) {
+        return CourierAssignmentController.assignmentResponse(courierAssignmentService, orderId, courierId);
     }
 
     // ================= CUSTOMER HISTORY =================
     @GetMapping("/customer/{customerId}/history")
-    public Map<String, Object> getCustomerOrderHistory(@PathVariable Long customerId) {
+    public Map<String, Object> getCustomerOrderHistory(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         Map<String, Object> response = new LinkedHashMap<>();
 
-        Optional<User> customerOpt = userRepository.findById(customerId);
-        if (customerOpt.isEmpty() || customerOpt.get().getRole() != User.Role.CUSTOMER) {
+        if (!userIdentityCache.hasRole(customerId, User.Role.CUSTOMER)) {
             response.put("message", "Customer not found");
             response.put("data", null);
             return response;
         }
 
-        List<Order> orders = orderRepository.findByCustomerId(customerId);
-        orders.sort((o1, o2) -> o2.getCreatedAt().compareTo(o1.getCreatedAt()));
+        OrderCursor after;
+        try {
+            after = cursor != null && !cursor.isBlank() ? OrderCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            response.put("data", null);
+            return response;
+        }
 
-        List<Map<String, Object>> orderResponses = orders.stream().map(order -> {
-            Map<String, Object> map = new LinkedHashMap<>();
-            map.put("id", order.getId());
-            map.put("status", order.getStatus());
-            map.put("createdAt", order.getCreatedAt());
-            map.put("totalPrice", order.getTotalPrice());
-            map.put("deliveryFee", order.getDeliveryFee());
-            map.put("items", order.getItems());
-
-            String courierName = null;
-            if (order.getCourierAssignment() != null && order.getCourierAssignment().getCourier() != null) {
-                courierName = order.getCourierAssignment().getCourier().getName();
+        int pageSize = Math.min(Math.max(limit, 1), MAX_HISTORY_PAGE);
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<OrderSummaryRow> hot = after == null
+                ? orderRepository.findHistory(customerId, page)
+                : orderRepository.findHistoryBefore(customerId, after.createdAt(), after.id(), page);
+        List<ArchivedOrder> archived = orderArchive.history(customerId,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, pageSize + 1);
+
+        // An order caught mid-archive can show up in both; the database copy wins
+        Map<Long, ArchivedOrder> archivedById = new HashMap<>();
+        List<OrderSummaryRow> rows = new ArrayList<>(hot);
+        Set<Long> hotIds = hot.stream().map(OrderSummaryRow::id).collect(Collectors.toSet());
+        for (ArchivedOrder order : archived) {
+            if (!hotIds.contains(order.id())) {
+                archivedById.put(order.id(), order);
+                rows.add(order.summary());
             }
-            map.put("courierName", courierName);
+        }
+        rows.sort(HISTORY_ORDER);
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        Map<Long, List<Map<String, Object>>> itemsByOrder = new HashMap<>();
+        List<Long> hotPageIds = rows.stream().map(OrderSummaryRow::id).filter(hotIds::contains)
+                .collect(Collectors.toList());
+        if (!hotPageIds.isEmpty()) {
+            for (OrderItemRow item : orderItemRepository.findRowsByOrderIds(hotPageIds)) {
+                addItem(itemsByOrder, item);
+            }
+        }
+        for (OrderSummaryRow row : rows) {
+            ArchivedOrder order = archivedById.get(row.id());
+            if (order != null) {
+                for (ArchivedItem item : order.items()) {
+                    addItem(itemsByOrder, item.row());
+                }
+            }
+        }
 
+        List<Map<String, Object>> orderResponses = rows.stream().map(order -> {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", order.id());
+            map.put("status", order.status());
+            map.put("createdAt", order.createdAt());
+            map.put("totalPrice", order.totalPrice());
+            map.put("deliveryFee", order.deliveryFee());
+            map.put("items", itemsByOrder.getOrDefault(order.id(), List.of()));
+            map.put("courierName", order.courierName());
             return map;
         }).collect(Collectors.toList());
 
+        OrderSummaryRow last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
         response.put("message", "Order history retrieved successfully");
         response.put("data", orderResponses);
+        response.put("nextCursor", hasMore ? new OrderCursor(last.createdAt(), last.id()).encode() : null);
         return response;
     }
 
+    private static void addItem(Map<Long, List<Map<String, Object>>> itemsByOrder, OrderItemRow item) {
+        Map<String, Object> menu = new LinkedHashMap<>();
+        menu.put("id", item.menuId());
+        menu.put("name", item.menuName());
+        menu.put("imageUrl", item.menuImageUrl());
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", item.id());
+        map.put("menu", menu);
+        map.put("quantity", item.quantity());
+        map.put("price", item.price());
+        map.put("totalPriceItem", item.totalPriceItem());
+        itemsByOrder.computeIfAbsent(item.orderId(), k -> new ArrayList<>()).add(map);
+    }
+
     // ================= REPORT =================
     @GetMapping("/reports")
-    public Map<String, Object> getRevenueReport(@RequestParam(defaultValue = "daily") String type) {
+    public Map<String, Object> getRevenueReport(
+            @RequestParam(defaultValue = "daily") String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String zone) {
         Map<String, Object> response = new LinkedHashMap<>();
 
-        List<Order> allOrders = orderRepository.findAll();
-        Map<String, Double> report = new LinkedHashMap<>();
-
-        switch (type.toLowerCase()) {
-            case "daily":
-                report = allOrders.stream()
-                        .collect(Collectors.groupingBy(
-                                o -> o.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toLocalDate().toString(),
-                                TreeMap::new,
-                                Collectors.summingDouble(Order::getTotalPrice)));
-                response.put("type", "daily");
-                break;
-
-            case "monthly":
-                report = allOrders.stream()
-                        .collect(Collectors.groupingBy(
-                                o -> {
-                                    var date = o.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toLocalDate();
-                                    return date.getYear() + "-" + String.format("%02d", date.getMonthValue());
-                                },
-                                TreeMap::new,
-                                Collectors.summingDouble(Order::getTotalPrice)));
-                response.put("type", "monthly");
-                break;
-
-            case "yearly":
-                report = allOrders.stream()
-                        .collect(Collectors.groupingBy(
-                                o -> String
-                                        .valueOf(o.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).getYear()),
-                                TreeMap::new,
-                                Collectors.summingDouble(Order::getTotalPrice)));
-                response.put("type", "yearly");
-                break;
-
-            default:
-                response.put("error", "Invalid type. Use: daily, monthly, or yearly");
-                return response;
+        String normalized = type.toLowerCase();
+        if (!normalized.equals("daily") && !normalized.equals("monthly") && !normalized.equals("yearly")) {
+            response.put("error", "Invalid type. Use: daily, monthly, or yearly");
+            return response;
         }
 
-        response.put("orders_count", allOrders.size());
-        response.put("report", report);
+        ZoneId zoneId;
+        try {
+            zoneId = zone != null ? ZoneId.of(zone) : ZoneId.systemDefault();
+        } catch (DateTimeException e) {
+            response.put("error", "Invalid zone: " + zone);
+            return response;
+        }
+
+        RevenueRollupService.Report report = revenueRollupService.report(normalized, from, to, zoneId);
+
+        response.put("type", normalized);
+        response.put("zone", zoneId.getId());
+        response.put("from", from);
+        response.put("to", to);
+        response.put("orders_count", report.ordersCount());
+        response.put("report", report.totals());
         response.put("message", "Revenue report (" + type + ") generated successfully");
 
         return response;
@@ -0,0 +1,34 @@
+package com.deliveryfood.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.deliveryfood.backend.service.OrderEventHub;
+
+@RestController
+@RequestMapping("/events")
+public class OrderEventController {
+
+    @Autowired
+    private OrderEventHub orderEventHub;
+
+    @GetMapping(value = "/orders/{orderId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrder(@PathVariable Long orderId) {
+        return orderEventHub.subscribeOrder(orderId);
+    }
+
+    @GetMapping(value = "/customers/{customerId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCustomerOrders(@PathVariable Long customerId) {
+        return orderEventHub.subscribeCustomer(customerId);
+    }
+
+    @GetMapping(value = "/couriers/{courierId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCourierOrders(@PathVariable Long courierId) {
+        return orderEventHub.subscribeCourier(courierId);
+    }
+}
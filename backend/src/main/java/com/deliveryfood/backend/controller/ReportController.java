@@ -0,0 +1,184 @@
+package com.deliveryfood.backend.controller;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.deliveryfood.backend.dto.CourierView;
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.service.CourierRegistryService;
+import com.deliveryfood.backend.service.MenuCatalogService;
+import com.deliveryfood.backend.service.OrderAnalyticsStore;
+
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+
+    private static final int MAX_TOP_MENUS = 100;
+
+    @Autowired
+    private OrderAnalyticsStore orderAnalyticsStore;
+
+    @Autowired
+    private MenuCatalogService menuCatalogService;
+
+    @Autowired
+    private CourierRegistryService courierRegistryService;
+
+    @GetMapping("/restaurants")
+    public ResponseEntity<Map<String, Object>> revenueByRestaurant(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String zone,
+            @RequestParam(required = false) Order.Status status) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        OrderAnalyticsStore.Filter filter = filter(from, to, zone, status, response);
+        if (filter == null) {
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        long started = System.nanoTime();
+        Map<Long, String> names = restaurantNames();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (OrderAnalyticsStore.RestaurantRevenue row : orderAnalyticsStore.revenueByRestaurant(filter)) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("restaurantId", row.restaurantId());
+            map.put("restaurantName", names.get(row.restaurantId()));
+            map.put("revenue", row.revenue());
+            map.put("itemsSold", row.quantity());
+            rows.add(map);
+        }
+        return ok("Revenue per restaurant generated successfully", rows, started, response);
+    }
+
+    @GetMapping("/menus/top")
+    public ResponseEntity<Map<String, Object>> topMenus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String zone,
+            @RequestParam(required = false) Order.Status status,
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(defaultValue = "quantity") String by,
+            @RequestParam(defaultValue = "10") int limit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        OrderAnalyticsStore.Filter filter = filter(from, to, zone, status, response);
+        if (filter == null) {
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (!by.equalsIgnoreCase("quantity") && !by.equalsIgnoreCase("revenue")) {
+            response.put("error", "Invalid by. Use: quantity or revenue");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        long started = System.nanoTime();
+        Map<Long, Menu> menus = menuCatalogService.current().byId();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (OrderAnalyticsStore.MenuSales row : orderAnalyticsStore.topMenus(filter, restaurantId,
+                by.equalsIgnoreCase("revenue"), Math.min(Math.max(limit, 1), MAX_TOP_MENUS))) {
+            Menu menu = menus.get(row.menuId());
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("menuId", row.menuId());
+            map.put("menuName", menu != null ? menu.getName() : null);
+            map.put("quantity", row.quantity());
+            map.put("revenue", row.revenue());
+            rows.add(map);
+        }
+        return ok("Top menus generated successfully", rows, started, response);
+    }
+
+    @GetMapping("/delivery-fees")
+    public ResponseEntity<Map<String, Object>> deliveryFeeShare(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String zone,
+            @RequestParam(required = false) Order.Status status) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        OrderAnalyticsStore.Filter filter = filter(from, to, zone, status, response);
+        if (filter == null) {
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        long started = System.nanoTime();
+        return ok("Delivery fee share generated successfully", orderAnalyticsStore.deliveryFeeShare(filter),
+                started, response);
+    }
+
+    @GetMapping("/couriers")
+    public ResponseEntity<Map<String, Object>> courierThroughput(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String zone) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        OrderAnalyticsStore.Filter filter = filter(from, to, zone, null, response);
+        if (filter == null) {
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        long started = System.nanoTime();
+        Map<Long, String> names = new LinkedHashMap<>();
+        for (CourierView courier : courierRegistryService.allCouriers()) {
+            names.put(courier.id(), courier.name());
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (OrderAnalyticsStore.CourierThroughput row : orderAnalyticsStore.courierThroughput(filter)) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("courierId", row.courierId());
+            map.put("courierName", names.get(row.courierId()));
+            map.put("assigned", row.assigned());
+            map.put("delivered", row.delivered());
+            map.put("deliveredRevenue", row.deliveredRevenue());
+            map.put("deliveredFees", row.deliveredFees());
+            rows.add(map);
+        }
+        return ok("Courier throughput generated successfully", rows, started, response);
+    }
+
+    private OrderAnalyticsStore.Filter filter(LocalDate from, LocalDate to, String zone, Order.Status status,
+            Map<String, Object> response) {
+        ZoneId zoneId;
+        try {
+            zoneId = zone != null ? ZoneId.of(zone) : ZoneId.systemDefault();
+        } catch (DateTimeException e) {
+            response.put("error", "Invalid zone: " + zone);
+            return null;
+        }
+        response.put("zone", zoneId.getId());
+        response.put("from", from);
+        response.put("to", to);
+        response.put("status", status);
+        return new OrderAnalyticsStore.Filter(
+                from != null ? from.atStartOfDay(zoneId).toInstant() : null,
+                to != null ? to.plusDays(1).atStartOfDay(zoneId).toInstant() : null,
+                status);
+    }
+
+    private Map<Long, String> restaurantNames() {
+        Map<Long, String> names = new LinkedHashMap<>();
+        for (Menu menu : menuCatalogService.current().menus()) {
+            if (menu.getRestaurant() != null) {
+                names.putIfAbsent(menu.getRestaurant().getId(), menu.getRestaurant().getName());
+            }
+        }
+        return names;
+    }
+
+    private ResponseEntity<Map<String, Object>> ok(String message, Object data, long started,
+            Map<String, Object> response) {
+        response.put("orders_scanned", orderAnalyticsStore.orderCount());
+        response.put("items_scanned", orderAnalyticsStore.itemCount());
+        response.put("took_ms", (System.nanoTime() - started) / 1_000_000.0);
+        response.put("message", message);
+        response.put("data", data);
+        return ResponseEntity.ok(response);
+    }
+}
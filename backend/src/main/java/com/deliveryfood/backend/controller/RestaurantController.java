@@ -1,5 +1,6 @@
 package com.deliveryfood.backend.controller;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +13,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.deliveryfood.backend.model.Restaurant;
 import com.deliveryfood.backend.repository.RestaurantRepository;
+import com.deliveryfood.backend.service.MenuCatalogService;
+import com.deliveryfood.backend.service.MenuSearchService;
+import com.deliveryfood.backend.service.RestaurantGeoIndex;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,12 +28,24 @@ import org.springframework.web.bind.annotation.RequestParam;
 @RequestMapping("/restaurants")
 public class RestaurantController {
 
+    private static final int MAX_NEARBY_RESULTS = 100;
+
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private MenuCatalogService menuCatalogService;
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
     @PostMapping("/create")
     public ResponseEntity<String> createRestaurant(@RequestBody Restaurant restaurant) {
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantGeoIndex.put(savedRestaurant);
         return ResponseEntity.ok("Restaurant with ID " + savedRestaurant.getId() + " successfully added!");
     }
 
@@ -62,8 +78,17 @@ public class RestaurantController {
             restaurant.setName(updated.getName());
             restaurant.setAddress(updated.getAddress());
             restaurant.setPhone(updated.getPhone());
+            // Clients that predate coordinates omit them; keep the stored location
+            if (updated.getLatitude() != null) {
+                restaurant.setLatitude(updated.getLatitude());
+            }
+            if (updated.getLongitude() != null) {
+                restaurant.setLongitude(updated.getLongitude());
+            }
 
             Restaurant saved = restaurantRepository.save(restaurant);
+            menuCatalogService.refresh();
+            restaurantGeoIndex.put(saved);
 
             response.put("message", "Restaurant dengan ID " + id + " berhasil diperbarui");
             response.put("data", saved);
@@ -82,6 +107,9 @@ public class RestaurantController {
                     .body("Restaurant with ID " + id + " not found");
         }
         restaurantRepository.deleteById(id);
+        restaurantGeoIndex.remove(id);
+        menuCatalogService.refresh();
+        menuSearchService.rebuild(menuCatalogService.current().menus());
         return ResponseEntity.ok("Restaurant deleted successfully!");
     }
 
@@ -99,6 +127,32 @@ public class RestaurantController {
                 : restaurantRepository.findAllByOrderByAddressAsc();
     }
 
+    @GetMapping("/nearby")
+    public Map<String, Object> findNearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "10") int limit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        int capped = Math.min(Math.max(limit, 1), MAX_NEARBY_RESULTS);
+
+        List<RestaurantGeoIndex.Nearby> nearby = radiusKm != null
+                ? restaurantGeoIndex.within(lat, lng, radiusKm, capped)
+                : restaurantGeoIndex.nearest(lat, lng, capped);
+
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (RestaurantGeoIndex.Nearby n : nearby) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("restaurant", n.restaurant());
+            item.put("distanceKm", Math.round(n.distanceKm() * 1000) / 1000.0);
+            data.add(item);
+        }
+
+        response.put("message", "Berhasil mengambil " + data.size() + " restaurant terdekat");
+        response.put("data", data);
+        return response;
+    }
+
     @GetMapping("/search-name-address")
     public List<Restaurant> searchRestaurant(@RequestParam String keyword) {
         return restaurantRepository.findByNameContainingIgnoreCaseOrAddressContainingIgnoreCase(keyword, keyword);
@@ -0,0 +1,54 @@
+package com.deliveryfood.backend.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.service.SlowQueryLog;
+import com.deliveryfood.backend.service.UserIdentityCache;
+
+@RestController
+@RequestMapping("/admin/slow-queries")
+public class SlowQueryController {
+
+    private static final int MAX_ENTRIES = 500;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @GetMapping("/{adminId}")
+    public ResponseEntity<?> getSlowQueries(
+            @PathVariable Long adminId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean slowOnly) {
+        if (!userIdentityCache.hasRole(adminId, User.Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Only admin can view slow queries!"));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("message", "Slow queries retrieved successfully");
+        response.put("thresholdMs", slowQueryLog.thresholdMillis());
+        response.put("sampleRate", slowQueryLog.sampleRate());
+        response.put("data", slowQueryLog.recent(Math.min(Math.max(limit, 1), MAX_ENTRIES), slowOnly));
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{adminId}")
+    public ResponseEntity<?> clearSlowQueries(@PathVariable Long adminId) {
+        if (!userIdentityCache.hasRole(adminId, User.Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Only admin can clear slow queries!"));
+        }
+        slowQueryLog.clear();
+        return ResponseEntity.ok(Map.of("message", "Slow query log cleared"));
+    }
+}
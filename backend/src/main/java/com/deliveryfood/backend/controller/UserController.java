@@ -2,10 +2,15 @@ package com.deliveryfood.backend.controller;
 
 import com.deliveryfood.backend.model.User;
 import com.deliveryfood.backend.repository.UserRepository;
+import com.deliveryfood.backend.service.CourierRegistryService;
+import com.deliveryfood.backend.service.PasswordHashingService;
+import com.deliveryfood.backend.service.UserIdentityCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -13,16 +18,31 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/users")
 public class UserController {
 
+    private static final long HASHING_RETRY_AFTER_SECONDS = 1;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private CourierRegistryService courierRegistryService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor taskExecutor;
 
     @GetMapping("/all")
     public List<User> getAllUsers() {
@@ -30,65 +50,89 @@ public class UserController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerCustomer(@RequestBody User user) {
+    public CompletableFuture<ResponseEntity<?>> registerCustomer(@RequestBody User user) {
+        long retryAfter = passwordHashingService.tryAttempt(user.getEmail());
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(tooManyRequests(retryAfter));
+        }
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("message", "Email already registered!"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Email already registered!")));
         }
 
-        user.setRole(User.Role.CUSTOMER);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
-
-        return ResponseEntity.ok(Map.of("message", "Customer registered successfully!"));
+        try {
+            // Save off the hashing pool so a slow insert never holds a hashing thread
+            return passwordHashingService.encode(user.getPassword()).thenApplyAsync(hash -> {
+                user.setRole(User.Role.CUSTOMER);
+                user.setPassword(hash);
+                userRepository.save(user);
+                return ResponseEntity.ok(Map.of("message", "Customer registered successfully!"));
+            }, taskExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests(HASHING_RETRY_AFTER_SECONDS));
+        }
     }
 
     @PostMapping("/register/courier/{adminId}")
-    public ResponseEntity<?> addCourier(@PathVariable Long adminId, @RequestBody User user) {
-        Optional<User> admin = userRepository.findById(adminId);
-        if (admin.isEmpty() || admin.get().getRole() != User.Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("message", "Only admin can add courier!"));
+    public CompletableFuture<ResponseEntity<?>> addCourier(@PathVariable Long adminId, @RequestBody User user) {
+        if (!userIdentityCache.hasRole(adminId, User.Role.ADMIN)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Only admin can add courier!")));
         }
 
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("message", "Email already registered!"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Email already registered!")));
         }
 
-        user.setRole(User.Role.COURIER);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
-
-        return ResponseEntity.ok(Map.of("message", "Courier registered successfully!"));
+        try {
+            return passwordHashingService.encode(user.getPassword()).thenApplyAsync(hash -> {
+                user.setRole(User.Role.COURIER);
+                user.setPassword(hash);
+                courierRegistryService.upsertCourier(userRepository.save(user));
+                return ResponseEntity.ok(Map.of("message", "Courier registered successfully!"));
+            }, taskExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests(HASHING_RETRY_AFTER_SECONDS));
+        }
     }
 
     @PutMapping("/courier/{adminId}/{courierId}")
-    public ResponseEntity<?> editCourier(
+    public CompletableFuture<ResponseEntity<?>> editCourier(
             @PathVariable Long adminId,
             @PathVariable Long courierId,
             @RequestBody User updatedUser) {
 
-        Optional<User> admin = userRepository.findById(adminId);
-        if (admin.isEmpty() || admin.get().getRole() != User.Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("message", "Only admin can edit courier!"));
+        if (!userIdentityCache.hasRole(adminId, User.Role.ADMIN)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Only admin can edit courier!")));
         }
 
         Optional<User> courier = userRepository.findById(courierId);
         if (courier.isEmpty() || courier.get().getRole() != User.Role.COURIER) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("message", "Courier not found!"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Courier not found!")));
         }
 
         User c = courier.get();
         c.setName(updatedUser.getName());
         c.setEmail(updatedUser.getEmail());
-        if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
-            c.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+        if (updatedUser.getPassword() == null || updatedUser.getPassword().isEmpty()) {
+            return CompletableFuture.completedFuture(saveCourier(c));
         }
-        userRepository.save(c);
+        try {
+            return passwordHashingService.encode(updatedUser.getPassword()).thenApplyAsync(hash -> {
+                c.setPassword(hash);
+                return saveCourier(c);
+            }, taskExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests(HASHING_RETRY_AFTER_SECONDS));
+        }
+    }
 
+    private ResponseEntity<?> saveCourier(User courier) {
+        courierRegistryService.upsertCourier(userRepository.save(courier));
+        userIdentityCache.invalidate(courier.getId());
         return ResponseEntity.ok(Map.of("message", "Courier updated successfully!"));
     }
 
@@ -97,8 +141,7 @@ public class UserController {
             @PathVariable Long adminId,
             @PathVariable Long courierId) {
 
-        Optional<User> admin = userRepository.findById(adminId);
-        if (admin.isEmpty() || admin.get().getRole() != User.Role.ADMIN) {
+        if (!userIdentityCache.hasRole(adminId, User.Role.ADMIN)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("message", "Only admin can delete courier!"));
         }
@@ -110,27 +153,53 @@ public class UserController {
         }
 
         userRepository.delete(courier.get());
+        courierRegistryService.removeCourier(courierId);
+        userIdentityCache.invalidate(courierId);
         return ResponseEntity.ok(Map.of("message", "Courier deleted successfully!"));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody User loginUser) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody User loginUser) {
+        long retryAfter = passwordHashingService.tryAttempt(loginUser.getEmail());
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(tooManyRequests(retryAfter));
+        }
         Optional<User> user = userRepository.findByEmail(loginUser.getEmail());
+        if (user.isEmpty() || loginUser.getPassword() == null) {
+            return CompletableFuture.completedFuture(invalidLogin());
+        }
 
-        if (user.isPresent() && passwordEncoder.matches(loginUser.getPassword(), user.get().getPassword())) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Login successful");
-            response.put("role", user.get().getRole());
-            response.put("email", user.get().getEmail());
-            response.put("id", user.get().getId()); 
-
-            return ResponseEntity.ok(response);
+        try {
+            return passwordHashingService.matches(loginUser.getPassword(), user.get().getPassword())
+                    .thenApply(matches -> {
+                        if (!matches) {
+                            return invalidLogin();
+                        }
+                        passwordHashingService.resetAttempts(loginUser.getEmail());
+
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("message", "Login successful");
+                        response.put("role", user.get().getRole());
+                        response.put("email", user.get().getEmail());
+                        response.put("id", user.get().getId());
+                        return ResponseEntity.ok(response);
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests(HASHING_RETRY_AFTER_SECONDS));
         }
+    }
 
+    private static ResponseEntity<?> invalidLogin() {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("message", "Invalid email or password!"));
     }
 
+    private static ResponseEntity<?> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of("message", "Too many requests, please try again later"));
+    }
+
     @PutMapping("/{userId}/address")
     public ResponseEntity<?> updateAddress(
             @PathVariable Long userId,
@@ -150,6 +219,9 @@ public class UserController {
         user.setPhone(addressData.getOrDefault("phone", user.getPhone()));
 
         userRepository.save(user);
+        if (user.getRole() == User.Role.COURIER) {
+            courierRegistryService.upsertCourier(user);
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Address updated successfully");
@@ -0,0 +1,4 @@
+package com.deliveryfood.backend.dto;
+
+public record ActiveAssignment(Long courierId, Long orderId) {
+}
@@ -0,0 +1,17 @@
+package com.deliveryfood.backend.dto;
+
+public record ArchivedItem(
+        Long orderId,
+        Long id,
+        Long menuId,
+        Long restaurantId,
+        String menuName,
+        String menuImageUrl,
+        Integer quantity,
+        Double price,
+        Double totalPriceItem) {
+
+    public OrderItemRow row() {
+        return new OrderItemRow(orderId, id, quantity, price, totalPriceItem, menuId, menuName, menuImageUrl);
+    }
+}
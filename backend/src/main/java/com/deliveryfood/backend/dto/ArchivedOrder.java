@@ -0,0 +1,32 @@
+package com.deliveryfood.backend.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.deliveryfood.backend.model.Order;
+
+public record ArchivedOrder(
+        Long id,
+        Long customerId,
+        Long courierId,
+        Order.Status status,
+        Instant createdAt,
+        Double totalPrice,
+        Double deliveryFee,
+        String courierName,
+        List<ArchivedItem> items) {
+
+    public ArchivedOrder(Long id, Long customerId, Long courierId, Order.Status status, Instant createdAt,
+            Double totalPrice, Double deliveryFee, String courierName) {
+        this(id, customerId, courierId, status, createdAt, totalPrice, deliveryFee, courierName, List.of());
+    }
+
+    public ArchivedOrder withItems(List<ArchivedItem> items) {
+        return new ArchivedOrder(id, customerId, courierId, status, createdAt, totalPrice, deliveryFee, courierName,
+                items);
+    }
+
+    public OrderSummaryRow summary() {
+        return new OrderSummaryRow(id, status, createdAt, totalPrice, deliveryFee, courierName);
+    }
+}
@@ -0,0 +1,17 @@
+package com.deliveryfood.backend.dto;
+
+/**
+ * Lines are keyed by menu within a user's cart, so the menu id doubles as the
+ * line id.
+ */
+public record CartLineView(
+        Long id,
+        int quantity,
+        MenuRef menu) {
+
+    public record MenuRef(Long id, String name, Double price, String imageUrl, RestaurantRef restaurant) {
+    }
+
+    public record RestaurantRef(Long id, String name) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.deliveryfood.backend.dto;
+
+public record CourierView(Long id, String name, String email, String phone, int activeOrders) {
+}
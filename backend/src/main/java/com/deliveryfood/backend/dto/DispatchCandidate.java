@@ -0,0 +1,6 @@
+package com.deliveryfood.backend.dto;
+
+import java.time.Instant;
+
+public record DispatchCandidate(Long orderId, Instant createdAt, Long restaurantId) {
+}
@@ -0,0 +1,31 @@
+package com.deliveryfood.backend.dto;
+
+import java.time.Instant;
+
+import com.deliveryfood.backend.model.Order;
+
+public record OrderEvent(
+        String type,
+        Long orderId,
+        Long customerId,
+        Long courierId,
+        Order.Status status,
+        Instant at) {
+
+    public static final String CREATED = "ORDER_CREATED";
+    public static final String ASSIGNED = "COURIER_ASSIGNED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String UPDATED = "ORDER_UPDATED";
+
+    public static OrderEvent of(String type, Order order) {
+        Long courierId = order.getCourierAssignment() != null && order.getCourierAssignment().getCourier() != null
+                ? order.getCourierAssignment().getCourier().getId()
+                : null;
+        return of(type, order, courierId);
+    }
+
+    public static OrderEvent of(String type, Order order, Long courierId) {
+        Long customerId = order.getCustomer() != null ? order.getCustomer().getId() : null;
+        return new OrderEvent(type, order.getId(), customerId, courierId, order.getStatus(), Instant.now());
+    }
+}
@@ -0,0 +1,9 @@
+package com.deliveryfood.backend.dto;
+
+import java.time.Instant;
+
+import com.deliveryfood.backend.model.Order;
+
+public record OrderFact(Long id, Instant createdAt, Double totalPrice, Double deliveryFee, Order.Status status,
+        Long courierId) {
+}
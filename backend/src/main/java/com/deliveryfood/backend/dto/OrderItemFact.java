@@ -0,0 +1,4 @@
+package com.deliveryfood.backend.dto;
+
+public record OrderItemFact(Long orderId, Long menuId, Long restaurantId, Integer quantity, Double totalPriceItem) {
+}
@@ -0,0 +1,12 @@
+package com.deliveryfood.backend.dto;
+
+public record OrderItemRow(
+        Long orderId,
+        Long id,
+        Integer quantity,
+        Double price,
+        Double totalPriceItem,
+        Long menuId,
+        String menuName,
+        String menuImageUrl) {
+}
@@ -0,0 +1,14 @@
+package com.deliveryfood.backend.dto;
+
+import java.time.Instant;
+
+import com.deliveryfood.backend.model.Order;
+
+public record OrderSummaryRow(
+        Long id,
+        Order.Status status,
+        Instant createdAt,
+        Double totalPrice,
+        Double deliveryFee,
+        String courierName) {
+}
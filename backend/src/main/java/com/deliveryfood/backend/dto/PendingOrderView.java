@@ -0,0 +1,17 @@
+package com.deliveryfood.backend.dto;
+
+import java.time.Instant;
+
+import com.deliveryfood.backend.model.Order;
+
+public record PendingOrderView(
+        Long id,
+        Order.Status status,
+        Double totalPrice,
+        Instant createdAt,
+        String customerName,
+        String customerStreet,
+        String customerCity,
+        String customerPostalCode,
+        String customerPhone) {
+}
@@ -0,0 +1,6 @@
+package com.deliveryfood.backend.dto;
+
+import java.time.Instant;
+
+public record RevenueFact(Instant createdAt, Double totalPrice) {
+}
@@ -24,4 +24,8 @@ public class CourierAssignment {
     private User courier;
 
     private Instant assignedAt = Instant.now();
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 }
@@ -1,14 +1,39 @@
 package com.deliveryfood.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.deliveryfood.backend.dto.ActiveAssignment;
 import com.deliveryfood.backend.model.CourierAssignment;
 import com.deliveryfood.backend.model.Order;
 import com.deliveryfood.backend.model.User;
 
 public interface CourierAssignmentRepository extends JpaRepository<CourierAssignment, Long> {
     List<CourierAssignment> findByCourier(User courier);
+
+    @Query("select a from CourierAssignment a join fetch a.courier join fetch a.order o left join fetch o.customer "
+            + "where a.courier.id = :courierId")
+    List<CourierAssignment> findByCourierId(@Param("courierId") Long courierId);
+
     List<CourierAssignment> findByOrder(Order order);
-}
\ No newline at end of file
+
+    @Query("select a from CourierAssignment a join fetch a.courier where a.order.id = :orderId")
+    Optional<CourierAssignment> findByOrderId(@Param("orderId") Long orderId);
+
+    boolean existsByOrderIdAndCourierId(Long orderId, Long courierId);
+
+    @Query("select new com.deliveryfood.backend.dto.ActiveAssignment(a.courier.id, a.order.id) "
+            + "from CourierAssignment a join a.order o "
+            + "where o.status is null or o.status <> com.deliveryfood.backend.model.Order.Status.DELIVERED")
+    List<ActiveAssignment> findActiveAssignments();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from CourierAssignment a where a.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -1,8 +1,11 @@
 package com.deliveryfood.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.deliveryfood.backend.model.Menu;
 
@@ -10,4 +13,10 @@ public interface MenuRepository extends JpaRepository<Menu, Long> {
 
     List<Menu> findByNameContainingIgnoreCase(String name);
 
+    @Query("select m from Menu m left join fetch m.restaurant order by m.id")
+    List<Menu> findAllWithRestaurant();
+
+    @Query("select m from Menu m left join fetch m.restaurant where m.id in :ids")
+    List<Menu> findAllWithRestaurantByIdIn(@Param("ids") Collection<Long> ids);
+
 }
\ No newline at end of file
@@ -1,8 +1,42 @@
 package com.deliveryfood.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.deliveryfood.backend.dto.ArchivedItem;
+import com.deliveryfood.backend.dto.OrderItemFact;
+import com.deliveryfood.backend.dto.OrderItemRow;
 import com.deliveryfood.backend.model.OrderItem;
 
+import jakarta.persistence.QueryHint;
+
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-}
\ No newline at end of file
+
+    @Query("select new com.deliveryfood.backend.dto.OrderItemRow(i.order.id, i.id, i.quantity, i.price, "
+            + "i.totalPriceItem, m.id, m.name, m.imageUrl) "
+            + "from OrderItem i left join i.menu m where i.order.id in :orderIds order by i.id")
+    List<OrderItemRow> findRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.deliveryfood.backend.dto.OrderItemFact(i.order.id, m.id, r.id, i.quantity, "
+            + "i.totalPriceItem) "
+            + "from OrderItem i left join i.menu m left join m.restaurant r")
+    Stream<OrderItemFact> streamItemFacts();
+
+    @Query("select new com.deliveryfood.backend.dto.ArchivedItem(i.order.id, i.id, m.id, r.id, m.name, m.imageUrl, "
+            + "i.quantity, i.price, i.totalPriceItem) "
+            + "from OrderItem i left join i.menu m left join m.restaurant r where i.order.id in :orderIds order by i.id")
+    List<ArchivedItem> findArchiveItems(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderItem i where i.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
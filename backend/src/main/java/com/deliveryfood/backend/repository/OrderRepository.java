@@ -1,12 +1,137 @@
 package com.deliveryfood.backend.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.deliveryfood.backend.dto.ArchivedOrder;
+import com.deliveryfood.backend.dto.DispatchCandidate;
+import com.deliveryfood.backend.dto.OrderFact;
+import com.deliveryfood.backend.dto.OrderSummaryRow;
+import com.deliveryfood.backend.dto.PendingOrderView;
+import com.deliveryfood.backend.dto.RevenueFact;
 import com.deliveryfood.backend.model.Order;
 
+import jakarta.persistence.QueryHint;
+
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerId(Long customerId);
 
+    @Query("select new com.deliveryfood.backend.dto.RevenueFact(o.createdAt, o.totalPrice) from Order o")
+    List<RevenueFact> findRevenueFacts();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.deliveryfood.backend.dto.OrderFact(o.id, o.createdAt, o.totalPrice, o.deliveryFee, "
+            + "o.status, co.id) "
+            + "from Order o left join o.courierAssignment a left join a.courier co")
+    Stream<OrderFact> streamOrderFacts();
+
+    @Query("select new com.deliveryfood.backend.dto.PendingOrderView(o.id, o.status, o.totalPrice, o.createdAt, "
+            + "c.name, c.street, c.city, c.postalCode, c.phone) "
+            + "from Order o left join o.customer c "
+            + "where (o.status = com.deliveryfood.backend.model.Order.Status.PENDING or o.status is null) "
+            + "and not exists (select a.id from CourierAssignment a where a.order = o)")
+    Slice<PendingOrderView> findPendingOrders(Pageable pageable);
+
+    @Query("select new com.deliveryfood.backend.dto.DispatchCandidate(o.id, o.createdAt, min(m.restaurant.id)) "
+            + "from Order o join o.items i join i.menu m "
+            + "where (o.status = com.deliveryfood.backend.model.Order.Status.PENDING or o.status is null) "
+            + "and not exists (select a.id from CourierAssignment a where a.order = o) "
+            + "group by o.id, o.createdAt "
+            + "order by o.createdAt, o.id")
+    List<DispatchCandidate> findDispatchCandidates(Pageable pageable);
+
+    /**
+     * Moves a pending, unassigned order to ASSIGNED and bumps its version in a
+     * single statement; returns 0 when another assignment got there first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = com.deliveryfood.backend.model.Order.Status.ASSIGNED, "
+            + "o.version = coalesce(o.version, 0) + 1 "
+            + "where o.id = :id "
+            + "and (o.status = com.deliveryfood.backend.model.Order.Status.PENDING or o.status is null) "
+            + "and not exists (select a.id from CourierAssignment a where a.order.id = :id)")
+    int claimForAssignment(@Param("id") Long id);
+
+    /**
+     * Moves an order from {@code from} to {@code to} in a single statement;
+     * returns 0 when the order is missing or no longer in {@code from}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.version = coalesce(o.version, 0) + 1 "
+            + "where o.id = :id and o.status = :from")
+    int transition(@Param("id") Long id, @Param("from") Order.Status from, @Param("to") Order.Status to);
+
+    /**
+     * Same as {@link #transition} but only matches while the order is assigned
+     * to the given courier.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.version = coalesce(o.version, 0) + 1 "
+            + "where o.id = :id and o.status = :from "
+            + "and exists (select a.id from CourierAssignment a where a.order.id = :id and a.courier.id = :courierId)")
+    int transitionForCourier(@Param("id") Long id, @Param("courierId") Long courierId,
+            @Param("from") Order.Status from, @Param("to") Order.Status to);
+
+    @Query("select o.status from Order o where o.id = :id")
+    List<Order.Status> findStatusById(@Param("id") Long id);
+
+    @Query("select o.customer.id from Order o where o.id = :id")
+    Optional<Long> findCustomerIdById(@Param("id") Long id);
+
+    @Query("select o.id from Order o "
+            + "where o.status = com.deliveryfood.backend.model.Order.Status.DELIVERED and o.createdAt < :cutoff "
+            + "order by o.id")
+    List<Long> findArchivableIds(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    /**
+     * Bumps the version of the delivered orders among {@code ids}, which locks
+     * their rows for the rest of the archiving transaction and makes any
+     * concurrent edit of them fail its optimistic check.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.version = coalesce(o.version, 0) + 1 "
+            + "where o.id in :ids and o.status = com.deliveryfood.backend.model.Order.Status.DELIVERED")
+    int lockForArchive(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.deliveryfood.backend.dto.ArchivedOrder(o.id, cu.id, co.id, o.status, o.createdAt, "
+            + "o.totalPrice, o.deliveryFee, co.name) "
+            + "from Order o left join o.customer cu left join o.courierAssignment a left join a.courier co "
+            + "where o.id in :ids and o.status = com.deliveryfood.backend.model.Order.Status.DELIVERED")
+    List<ArchivedOrder> findArchiveRows(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Order o "
+            + "where o.id in :ids and o.status = com.deliveryfood.backend.model.Order.Status.DELIVERED")
+    int deleteDelivered(@Param("ids") Collection<Long> ids);
+
+    long countByIdIn(Collection<Long> ids);
+
+    @Query("select new com.deliveryfood.backend.dto.OrderSummaryRow(o.id, o.status, o.createdAt, o.totalPrice, "
+            + "o.deliveryFee, c.name) "
+            + "from Order o left join o.courierAssignment a left join a.courier c "
+            + "where o.customer.id = :customerId "
+            + "order by o.createdAt desc, o.id desc")
+    List<OrderSummaryRow> findHistory(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query("select new com.deliveryfood.backend.dto.OrderSummaryRow(o.id, o.status, o.createdAt, o.totalPrice, "
+            + "o.deliveryFee, c.name) "
+            + "from Order o left join o.courierAssignment a left join a.courier c "
+            + "where o.customer.id = :customerId "
+            + "and (o.createdAt < :before or (o.createdAt = :before and o.id < :beforeId)) "
+            + "order by o.createdAt desc, o.id desc")
+    List<OrderSummaryRow> findHistoryBefore(@Param("customerId") Long customerId,
+            @Param("before") Instant before, @Param("beforeId") Long beforeId, Pageable pageable);
+
 }
\ No newline at end of file
@@ -0,0 +1,384 @@
+package com.deliveryfood.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliveryfood.backend.dto.CartLineView;
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.OrderItem;
+import com.deliveryfood.backend.model.User;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind cart keyed by (userId, menuId). A user's cart is loaded once,
+ * quantity changes merge in memory, and dirty carts are written back on a
+ * fixed delay. Each user is written in its own transaction as the difference
+ * from what was last persisted, so unchanged rows keep their ids and one bad
+ * cart cannot hold back the others. Lines whose menu has since been deleted
+ * are dropped at write-back. Checkout places the order and removes the
+ * purchased rows in a single transaction. Locks are {@link ReentrantLock}s
+ * rather than monitors because they are held across JDBC calls, which would
+ * pin a virtual thread to its carrier.
+ */
+@Service
+public class CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+
+    private static final String SELECT_SQL = "select menu_id, quantity from cart where user_id = ? order by id";
+    private static final String DELETE_USER_SQL = "delete from cart where user_id = ?";
+    private static final String DELETE_LINE_SQL = "delete from cart where user_id = ? and menu_id = ?";
+    private static final String UPDATE_SQL = "update cart set quantity = ? where user_id = ? and menu_id = ?";
+    private static final String INSERT_SQL = "insert into cart (quantity, user_id, menu_id) values (?, ?, ?)";
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final Map<Long, UserCart> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock writeBackLock = new ReentrantLock();
+    private final long idleMillis;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MenuCatalogService menuCatalogService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    public CartStore(@Value("${app.cart.idle-eviction-minutes:10}") long idleMinutes) {
+        this.idleMillis = TimeUnit.MINUTES.toMillis(idleMinutes);
+    }
+
+    public List<CartLineView> lines(Long userId) {
+        Map<Long, Menu> menus = menuCatalogService.current().byId();
+        List<CartLineView> views = new ArrayList<>();
+        UserCart cart = cart(userId);
+        cart.lock.lock();
+        try {
+            cart.touch();
+            cart.lines.forEach((menuId, quantity) -> {
+                Menu menu = menus.get(menuId);
+                if (menu != null) {
+                    views.add(view(menu, quantity));
+                }
+            });
+        } finally {
+            cart.lock.unlock();
+        }
+        return views;
+    }
+
+    public CartLineView add(Long userId, Long menuId, int quantity) {
+        requireUser(userId);
+        Menu menu = requireMenu(menuId);
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        int[] merged = new int[1];
+        mutate(userId, cart -> merged[0] = cart.lines.merge(menuId, quantity, Integer::sum));
+        return view(menu, merged[0]);
+    }
+
+    public CartLineView set(Long userId, Long menuId, int quantity) {
+        if (quantity <= 0) {
+            remove(userId, menuId);
+            return null;
+        }
+        requireUser(userId);
+        Menu menu = requireMenu(menuId);
+        mutate(userId, cart -> cart.lines.put(menuId, quantity));
+        return view(menu, quantity);
+    }
+
+    public void remove(Long userId, Long menuId) {
+        mutate(userId, cart -> cart.lines.remove(menuId));
+    }
+
+    /**
+     * Places an order for the selected lines, or the whole cart when no menu
+     * ids are given, and deletes those lines in the same transaction.
+     */
+    public Order checkout(User customer, Collection<Long> menuIds) {
+        Long userId = customer.getId();
+        while (true) {
+            UserCart cart = cart(userId);
+            cart.lock.lock();
+            try {
+                if (cart.evicted) {
+                    continue;
+                }
+                Map<Long, Integer> selected = new LinkedHashMap<>();
+                cart.lines.forEach((menuId, quantity) -> {
+                    if (menuIds == null || menuIds.isEmpty() || menuIds.contains(menuId)) {
+                        selected.put(menuId, quantity);
+                    }
+                });
+                if (selected.isEmpty()) {
+                    throw new IllegalArgumentException("Cart is empty");
+                }
+
+                List<OrderItem> items = new ArrayList<>();
+                selected.forEach((menuId, quantity) -> {
+                    Menu menu = new Menu();
+                    menu.setId(menuId);
+                    OrderItem item = new OrderItem();
+                    item.setMenu(menu);
+                    item.setQuantity(quantity);
+                    items.add(item);
+                });
+
+                Order order = transactionTemplate.execute(status -> {
+                    Order placed = orderIntakeService.placeOrder(customer, items);
+                    List<Object[]> rows = new ArrayList<>();
+                    selected.keySet().forEach(menuId -> rows.add(new Object[] { userId, menuId }));
+                    jdbcTemplate.batchUpdate(DELETE_LINE_SQL, rows);
+                    return placed;
+                });
+                selected.keySet().forEach(cart.lines::remove);
+                if (cart.persisted != null) {
+                    selected.keySet().forEach(cart.persisted::remove);
+                }
+                cart.touch();
+                dirty.add(userId);
+                return order;
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval-ms:1000}")
+    public void flush() {
+        writeBackLock.lock();
+        try {
+            if (!dirty.isEmpty()) {
+                writeBack();
+            }
+            evictIdle();
+        } finally {
+            writeBackLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeBackLock.lock();
+        try {
+            if (!dirty.isEmpty()) {
+                writeBack();
+            }
+        } finally {
+            writeBackLock.unlock();
+        }
+    }
+
+    private void writeBack() {
+        Map<Long, Menu> menus = menuCatalogService.current().byId();
+        int failed = 0;
+        for (Long userId : new ArrayList<>(dirty)) {
+            dirty.remove(userId);
+            UserCart cart = carts.get(userId);
+            if (cart != null && !writeBack(userId, cart, menus)) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.warn("Failed to write back {} carts, will retry", failed);
+        }
+    }
+
+    /**
+     * Writes one user's cart and returns false if it has to be retried.
+     */
+    private boolean writeBack(Long userId, UserCart cart, Map<Long, Menu> menus) {
+        Map<Long, Integer> lines;
+        Map<Long, Integer> persisted;
+        cart.lock.lock();
+        try {
+            cart.lines.keySet().removeIf(menuId -> !menus.containsKey(menuId));
+            lines = new LinkedHashMap<>(cart.lines);
+            persisted = cart.persisted != null ? new LinkedHashMap<>(cart.persisted) : null;
+        } finally {
+            cart.lock.unlock();
+        }
+
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        if (persisted != null) {
+            persisted.keySet().stream().filter(menuId -> !lines.containsKey(menuId))
+                    .forEach(menuId -> deletes.add(new Object[] { userId, menuId }));
+        }
+        lines.forEach((menuId, quantity) -> {
+            Integer previous = persisted != null ? persisted.get(menuId) : null;
+            if (previous == null) {
+                inserts.add(new Object[] { quantity, userId, menuId });
+            } else if (!previous.equals(quantity)) {
+                updates.add(new Object[] { quantity, userId, menuId });
+            }
+        });
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (persisted == null) {
+                    jdbcTemplate.update(DELETE_USER_SQL, userId);
+                }
+                if (!deletes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_LINE_SQL, deletes);
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                }
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                }
+            });
+        } catch (RuntimeException e) {
+            cart.lock.lock();
+            try {
+                if (userIdentityCache.find(userId).isEmpty() || ++cart.failures >= MAX_WRITE_ATTEMPTS) {
+                    // Nothing left to retry against; the next access reloads what was persisted
+                    log.warn("Dropping unsaved cart of user {}", userId, e);
+                    cart.evicted = true;
+                    carts.remove(userId, cart);
+                    return true;
+                }
+            } finally {
+                cart.lock.unlock();
+            }
+            log.debug("Write-back of cart of user {} failed", userId, e);
+            dirty.add(userId);
+            return false;
+        }
+
+        cart.lock.lock();
+        try {
+            cart.persisted = lines;
+            cart.failures = 0;
+        } finally {
+            cart.lock.unlock();
+        }
+        return true;
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        carts.forEach((userId, cart) -> {
+            cart.lock.lock();
+            try {
+                if (cart.lastAccess < cutoff && !dirty.contains(userId)) {
+                    cart.evicted = true;
+                    carts.remove(userId, cart);
+                }
+            } finally {
+                cart.lock.unlock();
+            }
+        });
+    }
+
+    private void mutate(Long userId, Consumer<UserCart> change) {
+        while (true) {
+            UserCart cart = cart(userId);
+            cart.lock.lock();
+            try {
+                if (cart.evicted) {
+                    continue;
+                }
+                change.accept(cart);
+                cart.touch();
+                dirty.add(userId);
+                return;
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    private UserCart cart(Long userId) {
+        UserCart cart = carts.get(userId);
+        if (cart != null) {
+            return cart;
+        }
+
+        UserCart loaded = new UserCart();
+        boolean[] duplicates = new boolean[1];
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            Integer previous = loaded.lines.merge(rs.getLong(1), rs.getInt(2), Integer::sum);
+            duplicates[0] |= previous != rs.getInt(2);
+        }, userId);
+        if (!duplicates[0]) {
+            loaded.persisted = new LinkedHashMap<>(loaded.lines);
+        }
+
+        UserCart existing = carts.putIfAbsent(userId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (duplicates[0]) {
+            dirty.add(userId);
+        }
+        return loaded;
+    }
+
+    private void requireUser(Long userId) {
+        if (userIdentityCache.find(userId).isEmpty()) {
+            throw new IllegalArgumentException("User with ID " + userId + " not found");
+        }
+    }
+
+    private Menu requireMenu(Long menuId) {
+        Menu menu = menuId != null ? menuCatalogService.current().byId().get(menuId) : null;
+        if (menu == null) {
+            throw new IllegalArgumentException("Menu with ID " + menuId + " not found");
+        }
+        return menu;
+    }
+
+    private static CartLineView view(Menu menu, int quantity) {
+        CartLineView.RestaurantRef restaurant = menu.getRestaurant() != null
+                ? new CartLineView.RestaurantRef(menu.getRestaurant().getId(), menu.getRestaurant().getName())
+                : null;
+        return new CartLineView(menu.getId(), quantity, new CartLineView.MenuRef(
+                menu.getId(), menu.getName(), menu.getPrice(), menu.getImageUrl(), restaurant));
+    }
+
+    private static final class UserCart {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, Integer> lines = new LinkedHashMap<>();
+        /** What the cart table holds for this user; null forces a full rewrite. */
+        private Map<Long, Integer> persisted;
+        private int failures;
+        private long lastAccess = System.currentTimeMillis();
+        private boolean evicted;
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.deliveryfood.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliveryfood.backend.dto.OrderEvent;
+import com.deliveryfood.backend.model.CourierAssignment;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.repository.CourierAssignmentRepository;
+import com.deliveryfood.backend.repository.OrderRepository;
+import com.deliveryfood.backend.repository.UserRepository;
+
+/**
+ * The one place orders get a courier, used by the assignment endpoints and the
+ * dispatch engine. An order is claimed with a single conditional UPDATE that
+ * only matches while it is pending and unassigned, so concurrent dispatchers
+ * cannot both win: the loser's update matches nothing and it returns at once
+ * instead of failing on the unique {@code order_id} constraint. The
+ * transaction is just the claim, one read and the insert, which keeps row
+ * locks short. Repeating an assignment that already happened is a no-op, so
+ * the call is retried once on transient lock failures. The courier registry
+ * and event subscribers hear about an assignment after commit.
+ */
+@Service
+public class CourierAssignmentService {
+
+    private static final int ATTEMPTS = 2;
+
+    public enum Outcome {
+        ASSIGNED, ALREADY_ASSIGNED, CONFLICT, NOT_FOUND, NOT_A_COURIER
+    }
+
+    /**
+     * {@code ALREADY_ASSIGNED} means this courier already had the order;
+     * {@code CONFLICT} carries the other courier's assignment, or none when
+     * the order is past PENDING without one.
+     */
+    public record Result(Outcome outcome, CourierAssignment assignment) {
+    }
+
+    @Autowired
+    private CourierAssignmentRepository courierAssignmentRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private CourierRegistryService courierRegistryService;
+
+    @Autowired
+    private OrderEventHub orderEventHub;
+
+    @Autowired
+    private OrderAnalyticsStore orderAnalyticsStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public Result assign(Long orderId, Long courierId) {
+        Optional<UserIdentityCache.Identity> identity = userIdentityCache.find(courierId);
+        if (identity.isEmpty()) {
+            return new Result(Outcome.NOT_FOUND, null);
+        }
+        if (identity.get().role() != User.Role.COURIER) {
+            return new Result(Outcome.NOT_A_COURIER, null);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> claimAndAssign(orderId, courierId));
+            } catch (TransientDataAccessException e) {
+                if (attempt >= ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns every order that is still pending and unassigned to the courier
+     * in one transaction and returns the assignments made; orders taken in the
+     * meantime are skipped.
+     */
+    public List<CourierAssignment> assignAll(Collection<Long> orderIds, Long courierId) {
+        if (!userIdentityCache.hasRole(courierId, User.Role.COURIER)) {
+            return List.of();
+        }
+        return transactionTemplate.execute(status -> {
+            List<CourierAssignment> assigned = new ArrayList<>();
+            for (Long orderId : orderIds) {
+                if (orderRepository.claimForAssignment(orderId) == 1) {
+                    assigned.add(insert(orderId, courierId));
+                }
+            }
+            return assigned;
+        });
+    }
+
+    private Result claimAndAssign(Long orderId, Long courierId) {
+        if (orderRepository.claimForAssignment(orderId) == 1) {
+            return new Result(Outcome.ASSIGNED, insert(orderId, courierId));
+        }
+        Optional<CourierAssignment> existing = courierAssignmentRepository.findByOrderId(orderId);
+        if (existing.isPresent()) {
+            boolean same = courierId.equals(existing.get().getCourier().getId());
+            return new Result(same ? Outcome.ALREADY_ASSIGNED : Outcome.CONFLICT, existing.get());
+        }
+        return new Result(orderRepository.existsById(orderId) ? Outcome.CONFLICT : Outcome.NOT_FOUND, null);
+    }
+
+    private CourierAssignment insert(Long orderId, Long courierId) {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        CourierAssignment assignment = new CourierAssignment();
+        assignment.setOrder(order);
+        assignment.setCourier(userRepository.findById(courierId).orElseThrow());
+        assignment.setAssignedAt(Instant.now());
+        CourierAssignment saved = courierAssignmentRepository.save(assignment);
+        order.setCourierAssignment(saved);
+
+        AfterCommit.run(() -> {
+            courierRegistryService.orderAssigned(courierId, orderId);
+            orderAnalyticsStore.courierAssigned(orderId, courierId);
+            orderAnalyticsStore.statusChanged(orderId, Order.Status.ASSIGNED);
+        });
+        orderEventHub.publish(OrderEvent.of(OrderEvent.ASSIGNED, order, courierId));
+        return saved;
+    }
+}
@@ -0,0 +1,215 @@
+package com.deliveryfood.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.dto.ActiveAssignment;
+import com.deliveryfood.backend.dto.CourierView;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.repository.CourierAssignmentRepository;
+import com.deliveryfood.backend.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Live view of every courier and the orders they are still delivering. A
+ * courier is busy while any assigned order has not reached DELIVERED. Writes
+ * are serialized; reads go straight to the concurrent maps without locking.
+ */
+@Service
+public class CourierRegistryService {
+
+    private final Map<Long, CourierState> couriers = new ConcurrentHashMap<>();
+    private final Set<Long> freeCouriers = new ConcurrentSkipListSet<>();
+    private final Map<Long, Long> courierByOrder = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourierAssignmentRepository courierAssignmentRepository;
+
+    @PostConstruct
+    public void load() {
+        lock.lock();
+        try {
+            couriers.clear();
+            freeCouriers.clear();
+            courierByOrder.clear();
+
+            for (User courier : userRepository.findByRole(User.Role.COURIER)) {
+                couriers.put(courier.getId(), CourierState.of(courier));
+            }
+            for (ActiveAssignment assignment : courierAssignmentRepository.findActiveAssignments()) {
+                CourierState state = couriers.get(assignment.courierId());
+                if (state != null) {
+                    state.activeOrders.add(assignment.orderId());
+                    courierByOrder.put(assignment.orderId(), assignment.courierId());
+                }
+            }
+            couriers.values().forEach(this::refreshAvailability);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<CourierView> availableCouriers() {
+        List<CourierView> available = new ArrayList<>();
+        for (Long id : freeCouriers) {
+            CourierState state = couriers.get(id);
+            if (state != null) {
+                available.add(state.view());
+            }
+        }
+        return available;
+    }
+
+    public List<CourierView> allCouriers() {
+        List<CourierView> all = new ArrayList<>();
+        for (CourierState state : couriers.values()) {
+            all.add(state.view());
+        }
+        return all;
+    }
+
+    public int activeLoad(Long courierId) {
+        CourierState state = couriers.get(courierId);
+        return state != null ? state.activeOrders.size() : 0;
+    }
+
+    public boolean isAvailable(Long courierId) {
+        return freeCouriers.contains(courierId);
+    }
+
+    public Long courierFor(Long orderId) {
+        lock.lock();
+        try {
+            return courierByOrder.get(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void upsertCourier(User courier) {
+        lock.lock();
+        try {
+            if (courier.getRole() != User.Role.COURIER) {
+                removeCourier(courier.getId());
+                return;
+            }
+            CourierState previous = couriers.get(courier.getId());
+            CourierState state = CourierState.of(courier);
+            if (previous != null) {
+                state.activeOrders.addAll(previous.activeOrders);
+            }
+            couriers.put(courier.getId(), state);
+            refreshAvailability(state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeCourier(Long courierId) {
+        lock.lock();
+        try {
+            CourierState state = couriers.remove(courierId);
+            freeCouriers.remove(courierId);
+            if (state != null) {
+                state.activeOrders.forEach(courierByOrder::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void orderAssigned(Long courierId, Long orderId) {
+        lock.lock();
+        try {
+            Long previousCourier = courierByOrder.remove(orderId);
+            if (previousCourier != null) {
+                release(previousCourier, orderId);
+            }
+            CourierState state = couriers.get(courierId);
+            if (state != null) {
+                state.activeOrders.add(orderId);
+                courierByOrder.put(orderId, courierId);
+                refreshAvailability(state);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void orderStatusChanged(Long orderId, Order.Status status) {
+        lock.lock();
+        try {
+            if (status == Order.Status.DELIVERED) {
+                orderRemoved(orderId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void orderRemoved(Long orderId) {
+        lock.lock();
+        try {
+            Long courierId = courierByOrder.remove(orderId);
+            if (courierId != null) {
+                release(courierId, orderId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Long courierId, Long orderId) {
+        CourierState state = couriers.get(courierId);
+        if (state != null) {
+            state.activeOrders.remove(orderId);
+            refreshAvailability(state);
+        }
+    }
+
+    private void refreshAvailability(CourierState state) {
+        if (state.activeOrders.isEmpty()) {
+            freeCouriers.add(state.id);
+        } else {
+            freeCouriers.remove(state.id);
+        }
+    }
+
+    private static final class CourierState {
+        private final Long id;
+        private final String name;
+        private final String email;
+        private final String phone;
+        private final Set<Long> activeOrders = ConcurrentHashMap.newKeySet();
+
+        private CourierState(Long id, String name, String email, String phone) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.phone = phone;
+        }
+
+        static CourierState of(User courier) {
+            return new CourierState(courier.getId(), courier.getName(), courier.getEmail(), courier.getPhone());
+        }
+
+        CourierView view() {
+            return new CourierView(id, name, email, phone, activeOrders.size());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.deliveryfood.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.dto.CourierView;
+import com.deliveryfood.backend.dto.DispatchCandidate;
+import com.deliveryfood.backend.model.CourierAssignment;
+import com.deliveryfood.backend.model.Restaurant;
+import com.deliveryfood.backend.repository.OrderRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Assigns pending orders to couriers in the background. Each round reads the
+ * oldest unassigned orders in one query, groups them by restaurant and hands
+ * each group, oldest first, to the courier with the lowest cost: distance from
+ * the courier's last pickup to the restaurant plus a penalty per order already
+ * carried. A courier that is already out only picks up more orders within
+ * {@code app.dispatch.batch-radius-km} of the last pickup, so batches stay
+ * local, unless an order has waited longer than
+ * {@code app.dispatch.max-wait-seconds}. Matching runs in memory against the
+ * courier registry; only the resulting assignments touch the database, one
+ * transaction per batch.
+ */
+@Service
+public class DispatchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchEngine.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CourierRegistryService courierRegistryService;
+
+    @Autowired
+    private CourierAssignmentService courierAssignmentService;
+
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Value("${app.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dispatch.max-orders-per-round:500}")
+    private int maxOrdersPerRound;
+
+    @Value("${app.dispatch.batch-size:3}")
+    private int batchSize;
+
+    @Value("${app.dispatch.max-load:3}")
+    private int maxLoad;
+
+    @Value("${app.dispatch.batch-radius-km:1.0}")
+    private double batchRadiusKm;
+
+    @Value("${app.dispatch.load-penalty-km:2.0}")
+    private double loadPenaltyKm;
+
+    @Value("${app.dispatch.unknown-distance-km:3.0}")
+    private double unknownDistanceKm;
+
+    @Value("${app.dispatch.max-wait-seconds:120}")
+    private long maxWaitSeconds;
+
+    private final Map<Long, double[]> lastPickup = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Timer roundTimer;
+    private final Timer matchTimer;
+
+    public DispatchEngine(MeterRegistry registry) {
+        roundTimer = Timer.builder("dispatch.round").description("Full dispatch round").register(registry);
+        matchTimer = Timer.builder("dispatch.match").description("In-memory matching per round").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.dispatch.interval-ms:2000}")
+    public void scheduledRound() {
+        if (enabled) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Runs one matching round and returns how many orders were assigned.
+     */
+    public int dispatch() {
+        lock.lock();
+        try {
+            long started = System.nanoTime();
+            List<DispatchCandidate> candidates =
+                    orderRepository.findDispatchCandidates(PageRequest.of(0, maxOrdersPerRound));
+            if (candidates.isEmpty()) {
+                return 0;
+            }
+
+            long matchStarted = System.nanoTime();
+            List<Batch> batches = match(candidates, courierRegistryService.allCouriers());
+            matchTimer.record(System.nanoTime() - matchStarted, TimeUnit.NANOSECONDS);
+
+            int assigned = 0;
+            for (Batch batch : batches) {
+                try {
+                    List<CourierAssignment> made =
+                            courierAssignmentService.assignAll(batch.orderIds(), batch.courierId());
+                    if (!made.isEmpty() && batch.location() != null) {
+                        lastPickup.put(batch.courierId(), batch.location());
+                    }
+                    assigned += made.size();
+                } catch (RuntimeException e) {
+                    log.warn("Could not assign orders {} to courier {}", batch.orderIds(), batch.courierId(), e);
+                }
+            }
+            long elapsed = System.nanoTime() - started;
+            roundTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Dispatched {} of {} pending orders in {} batches ({} ms)", assigned, candidates.size(),
+                    batches.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return assigned;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<Batch> match(List<DispatchCandidate> candidates, List<CourierView> couriers) {
+        Map<Long, List<Long>> byRestaurant = new LinkedHashMap<>();
+        Map<Long, Instant> oldest = new HashMap<>();
+        for (DispatchCandidate candidate : candidates) {
+            byRestaurant.computeIfAbsent(candidate.restaurantId(), id -> new ArrayList<>()).add(candidate.orderId());
+            oldest.putIfAbsent(candidate.restaurantId(), candidate.createdAt());
+        }
+        Instant overdue = Instant.now().minusSeconds(maxWaitSeconds);
+
+        List<Slot> slots = new ArrayList<>();
+        for (CourierView courier : couriers) {
+            if (courier.activeOrders() < maxLoad) {
+                slots.add(new Slot(courier.id(), courier.activeOrders(), lastPickup.get(courier.id())));
+            }
+        }
+
+        List<Batch> batches = new ArrayList<>();
+        for (Map.Entry<Long, List<Long>> group : byRestaurant.entrySet()) {
+            double[] location = location(group.getKey());
+            List<Long> orderIds = group.getValue();
+            Instant waitingSince = oldest.get(group.getKey());
+            boolean anyCourier = waitingSince != null && waitingSince.isBefore(overdue);
+            int next = 0;
+            while (next < orderIds.size()) {
+                Slot best = null;
+                double bestCost = Double.MAX_VALUE;
+                for (Slot slot : slots) {
+                    if (slot.load >= maxLoad) {
+                        continue;
+                    }
+                    double distance = distanceKm(slot.location, location);
+                    if (!anyCourier && slot.load > 0 && (slot.location == null || distance > batchRadiusKm)) {
+                        continue;
+                    }
+                    double cost = distance + slot.load * loadPenaltyKm;
+                    if (cost < bestCost) {
+                        best = slot;
+                        bestCost = cost;
+                    }
+                }
+                if (best == null) {
+                    break;
+                }
+                int take = Math.min(Math.min(batchSize, maxLoad - best.load), orderIds.size() - next);
+                batches.add(new Batch(best.courierId, List.copyOf(orderIds.subList(next, next + take)), location));
+                next += take;
+                best.load += take;
+                if (location != null) {
+                    best.location = location;
+                }
+            }
+        }
+        return batches;
+    }
+
+    private double[] location(Long restaurantId) {
+        Restaurant restaurant = restaurantId != null ? restaurantGeoIndex.find(restaurantId) : null;
+        if (restaurant == null || restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+            return null;
+        }
+        return new double[] { restaurant.getLatitude(), restaurant.getLongitude() };
+    }
+
+    private double distanceKm(double[] from, double[] to) {
+        if (from == null || to == null) {
+            return unknownDistanceKm;
+        }
+        return RestaurantGeoIndex.distanceKm(from[0], from[1], to[0], to[1]);
+    }
+
+    record Batch(Long courierId, List<Long> orderIds, double[] location) {
+    }
+
+    private static final class Slot {
+        private final Long courierId;
+        private int load;
+        private double[] location;
+
+        Slot(Long courierId, int load, double[] location) {
+            this.courierId = courierId;
+            this.load = load;
+            this.location = location;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.deliveryfood.backend.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Content-addressed storage for menu images. Uploads are streamed to disk while
+ * being hashed, so identical images share one file named after their SHA-256,
+ * and downsized variants are rendered in the background. Files are served with
+ * strong ETags, long-lived caching, single byte ranges and Tomcat sendfile when
+ * the connector supports it.
+ */
+@Service
+public class ImageStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageStorageService.class);
+
+    public static final String URL_PREFIX = "/menus/uploads/";
+
+    static final int[] VARIANT_WIDTHS = { 160, 480 };
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp", "bmp");
+    private static final Set<String> RESIZABLE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "bmp");
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9._ -]+");
+    private static final Pattern HASHED_NAME = Pattern.compile("([0-9a-f]{64})(?:_w\\d+)?\\.[a-z0-9]+");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path uploadDir;
+
+    private final ThreadPoolExecutor variantExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256), r -> {
+                Thread thread = new Thread(r, "image-variants");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public ImageStorageService(@Value("${app.uploads.dir:uploads}") String uploadDir) {
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        variantExecutor.shutdownNow();
+    }
+
+    public String store(MultipartFile file) throws IOException {
+        Files.createDirectories(uploadDir);
+        String extension = extensionOf(file.getOriginalFilename());
+        Path temp = Files.createTempFile(uploadDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String filename = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = uploadDir.resolve(filename);
+            if (Files.exists(target)) {
+                Files.delete(temp);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            scheduleVariants(target, extension);
+            return URL_PREFIX + filename;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public void serve(String filename, Integer width, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = resolve(filename);
+        if (file == null || !Files.isRegularFile(file)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Could not read file: " + filename);
+            return;
+        }
+        // Until a variant is rendered the original stands in for it, under its
+        // own ETag and without long-lived caching so the URL picks it up later
+        Path pending = null;
+        if (width != null) {
+            Path variant = variantFor(file, width);
+            if (variant != file && !Files.isRegularFile(variant)) {
+                pending = variant;
+                scheduleVariants(file, extensionOf(file.getFileName().toString()));
+            } else {
+                file = variant;
+            }
+        }
+
+        long length = Files.size(file);
+        String name = file.getFileName().toString();
+        boolean contentAddressed = HASHED_NAME.matcher(name).matches();
+        String etag;
+        if (pending != null) {
+            String variantName = pending.getFileName().toString();
+            etag = "\"" + variantName.substring(0, variantName.lastIndexOf('.')) + "-original\"";
+        } else if (contentAddressed) {
+            etag = "\"" + name.substring(0, name.lastIndexOf('.')) + "\"";
+        } else {
+            etag = "\"" + length + "-" + Files.getLastModifiedTime(file).toMillis() + "\"";
+        }
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (pending != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, contentAddressed
+                    ? "public, max-age=31536000, immutable"
+                    : "public, max-age=86400");
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(name)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // Multiple ranges are not supported; such requests get the whole file
+        if (range != null && length > 0 && !range.contains(",") && (ifRange == null || ifRange.equals(etag))) {
+            Matcher matcher = RANGE.matcher(range.trim());
+            if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                rangeNotSatisfiable(response, length);
+                return;
+            }
+            try {
+                if (matcher.group(1).isEmpty()) {
+                    start = Math.max(0, length - Long.parseLong(matcher.group(2)));
+                } else {
+                    start = Long.parseLong(matcher.group(1));
+                    if (!matcher.group(2).isEmpty()) {
+                        end = Math.min(end, Long.parseLong(matcher.group(2)));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // Positions too large for a long
+                rangeNotSatisfiable(response, length);
+                return;
+            }
+            if (start > end) {
+                rangeNotSatisfiable(response, length);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
+        }
+    }
+
+    private void scheduleVariants(Path original, String extension) {
+        if (!RESIZABLE_EXTENSIONS.contains(extension)) {
+            return;
+        }
+        variantExecutor.execute(() -> {
+            try {
+                BufferedImage source = null;
+                boolean read = false;
+                for (int width : VARIANT_WIDTHS) {
+                    Path variant = variantPath(original, width);
+                    if (Files.exists(variant)) {
+                        continue;
+                    }
+                    if (!read) {
+                        source = ImageIO.read(original.toFile());
+                        read = true;
+                    }
+                    if (source == null || source.getWidth() <= width) {
+                        // Unreadable or already small enough: the original is the variant
+                        copyVariant(original, variant);
+                        continue;
+                    }
+                    writeVariant(source, width, extension, variant);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to render variants for {}", original.getFileName(), e);
+            }
+        });
+    }
+
+    private void writeVariant(BufferedImage source, int width, String extension, Path variant) throws IOException {
+        int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+        boolean alpha = source.getColorModel().hasAlpha() && !extension.startsWith("jp");
+        BufferedImage scaled = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        Path temp = Files.createTempFile(uploadDir, "variant-", ".tmp");
+        try {
+            String format = extension.equals("jpg") ? "jpeg" : extension;
+            if (ImageIO.write(scaled, format, temp.toFile())) {
+                Files.move(temp, variant, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void copyVariant(Path original, Path variant) throws IOException {
+        Path temp = Files.createTempFile(uploadDir, "variant-", ".tmp");
+        try {
+            Files.copy(original, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, variant, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * The variant file that answers a request for {@code width}, which may not
+     * have been rendered yet, or the original when no variant applies.
+     */
+    private Path variantFor(Path original, int width) {
+        String name = original.getFileName().toString();
+        if (!HASHED_NAME.matcher(name).matches() || name.contains("_w")
+                || !RESIZABLE_EXTENSIONS.contains(extensionOf(name))) {
+            return original;
+        }
+        for (int candidate : VARIANT_WIDTHS) {
+            if (candidate >= width) {
+                return variantPath(original, candidate);
+            }
+        }
+        return original;
+    }
+
+    private static Path variantPath(Path original, int width) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return original.resolveSibling(name.substring(0, dot) + "_w" + width + name.substring(dot));
+    }
+
+    private Path resolve(String filename) {
+        if (filename == null || !SAFE_NAME.matcher(filename).matches() || filename.contains("..")) {
+            return null;
+        }
+        Path file = uploadDir.resolve(filename).normalize();
+        return file.startsWith(uploadDir) ? file : null;
+    }
+
+    private static void rangeNotSatisfiable(HttpServletResponse response, long length) {
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setContentLengthLong(0);
+    }
+
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename != null) {
+            int dot = originalFilename.lastIndexOf('.');
+            if (dot >= 0) {
+                String extension = originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT);
+                if (IMAGE_EXTENSIONS.contains(extension)) {
+                    return extension;
+                }
+            }
+        }
+        return "bin";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.deliveryfood.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.repository.MenuRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Immutable, versioned snapshot of the whole menu catalog. Menus change a few
+ * times a day, so every write rebuilds the snapshot and the read endpoints
+ * serve the pre-serialized JSON with a content-derived ETag. The same rebuild
+ * reloads the {@link PriceBook} used for quotes and order pricing.
+ */
+@Service
+public class MenuCatalogService {
+
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.empty();
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PriceBook priceBook;
+
+    @PostConstruct
+    public void refresh() {
+        lock.lock();
+        try {
+            List<Menu> menus = menuRepository.findAllWithRestaurant();
+
+            Map<Long, Menu> byId = new LinkedHashMap<>();
+            Map<Long, List<Menu>> grouped = new LinkedHashMap<>();
+            for (Menu menu : menus) {
+                byId.put(menu.getId(), menu);
+                if (menu.getRestaurant() != null) {
+                    grouped.computeIfAbsent(menu.getRestaurant().getId(), k -> new ArrayList<>()).add(menu);
+                }
+            }
+
+            Map<Long, CachedBody> byRestaurant = new LinkedHashMap<>();
+            grouped.forEach((restaurantId, slice) -> byRestaurant.put(restaurantId,
+                    serialize("Successfully retrieved menus for restaurant " + restaurantId, slice)));
+
+            long version = versions.incrementAndGet();
+            snapshot = new Snapshot(
+                    version,
+                    Collections.unmodifiableList(menus),
+                    Collections.unmodifiableMap(byId),
+                    serialize("Successfully retrieved all menus", menus),
+                    Collections.unmodifiableMap(byRestaurant));
+            priceBook.load(version, menus);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    public CachedBody restaurantMenus(Long restaurantId) {
+        CachedBody body = snapshot.byRestaurant().get(restaurantId);
+        return body != null ? body : serialize("Successfully retrieved menus for restaurant " + restaurantId, List.of());
+    }
+
+    private CachedBody serialize(String message, List<Menu> menus) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("message", message);
+        response.put("data", menus);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            return new CachedBody(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize menu catalog", e);
+        }
+    }
+
+    public record Snapshot(
+            long version,
+            List<Menu> menus,
+            Map<Long, Menu> byId,
+            CachedBody all,
+            Map<Long, CachedBody> byRestaurant) {
+
+        static Snapshot empty() {
+            return new Snapshot(0, List.of(), Map.of(), new CachedBody(new byte[0], "\"0\""), Map.of());
+        }
+    }
+
+    public record CachedBody(byte[] json, String etag) {
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag) || tag.equals("*")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.deliveryfood.backend.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.model.Menu;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Inverted index over menu names and descriptions. Whole tokens live in a
+ * sorted map for exact and prefix lookups; trigrams of every token resolve
+ * substring matches without scanning the catalog. Menus are re-indexed one at
+ * a time on writes.
+ */
+@Service
+public class MenuSearchService {
+
+    private static final double NAME_EXACT = 3.0;
+    private static final double NAME_PREFIX = 2.0;
+    private static final double NAME_SUBSTRING = 1.5;
+    private static final double DESCRIPTION_EXACT = 1.0;
+    private static final double DESCRIPTION_PREFIX = 0.7;
+    private static final double DESCRIPTION_SUBSTRING = 0.5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> tokens = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    @Autowired
+    private MenuCatalogService menuCatalogService;
+
+    @PostConstruct
+    public void load() {
+        rebuild(menuCatalogService.current().menus());
+    }
+
+    public void rebuild(Collection<Menu> menus) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            tokens.clear();
+            trigrams.clear();
+            menus.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Menu menu) {
+        lock.writeLock().lock();
+        try {
+            delete(menu.getId());
+            add(menu);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long menuId) {
+        lock.writeLock().lock();
+        try {
+            delete(menuId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, Long restaurantId, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Hit> hits = new HashMap<>();
+            for (String term : terms) {
+                for (Long menuId : candidates(term)) {
+                    Document doc = documents.get(menuId);
+                    if (doc == null || (restaurantId != null && !restaurantId.equals(doc.restaurantId))) {
+                        continue;
+                    }
+                    double score = doc.score(term);
+                    if (score > 0) {
+                        hits.merge(menuId, new Hit(menuId, 1, score, doc.name), Hit::plus);
+                    }
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(hits.values());
+            ranked.sort(Comparator.comparingInt(Hit::matchedTerms).reversed()
+                    .thenComparing(Comparator.comparingDouble(Hit::score).reversed())
+                    .thenComparing(Hit::name, Comparator.nullsLast(Comparator.naturalOrder())));
+            return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> candidates(String term) {
+        Set<Long> result = new HashSet<>();
+        for (Set<Long> ids : tokens.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            result.addAll(ids);
+        }
+        if (term.length() < 3) {
+            return result;
+        }
+
+        Set<String> matchingTokens = null;
+        for (String gram : trigramsOf(term)) {
+            Set<String> withGram = trigrams.get(gram);
+            if (withGram == null) {
+                return result;
+            }
+            if (matchingTokens == null) {
+                matchingTokens = new HashSet<>(withGram);
+            } else {
+                matchingTokens.retainAll(withGram);
+            }
+        }
+        if (matchingTokens != null) {
+            for (String token : matchingTokens) {
+                if (token.contains(term)) {
+                    result.addAll(tokens.getOrDefault(token, Set.of()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void add(Menu menu) {
+        if (menu.getId() == null) {
+            return;
+        }
+        Long restaurantId = menu.getRestaurant() != null ? menu.getRestaurant().getId() : null;
+        Document doc = new Document(menu.getId(), restaurantId, menu.getName(),
+                new LinkedHashSet<>(tokenize(menu.getName())),
+                new LinkedHashSet<>(tokenize(menu.getDescription())));
+        documents.put(doc.menuId, doc);
+        for (String token : doc.allTokens()) {
+            tokens.computeIfAbsent(token, k -> new HashSet<>()).add(doc.menuId);
+            for (String gram : trigramsOf(token)) {
+                trigrams.computeIfAbsent(gram, k -> new HashSet<>()).add(token);
+            }
+        }
+    }
+
+    private void delete(Long menuId) {
+        Document doc = documents.remove(menuId);
+        if (doc == null) {
+            return;
+        }
+        for (String token : doc.allTokens()) {
+            Set<Long> ids = tokens.get(token);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(menuId);
+            if (ids.isEmpty()) {
+                tokens.remove(token);
+                for (String gram : trigramsOf(token)) {
+                    Set<String> withGram = trigrams.get(gram);
+                    if (withGram != null) {
+                        withGram.remove(token);
+                        if (withGram.isEmpty()) {
+                            trigrams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase();
+        List<String> result = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{Alnum}]+")) {
+            if (!token.isEmpty()) {
+                result.add(token);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> trigramsOf(String token) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            grams.add(token.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record Document(Long menuId, Long restaurantId, String name, Set<String> nameTokens,
+            Set<String> descriptionTokens) {
+
+        Set<String> allTokens() {
+            Set<String> all = new HashSet<>(nameTokens);
+            all.addAll(descriptionTokens);
+            return all;
+        }
+
+        double score(String term) {
+            return Math.max(
+                    best(nameTokens, term, NAME_EXACT, NAME_PREFIX, NAME_SUBSTRING),
+                    best(descriptionTokens, term, DESCRIPTION_EXACT, DESCRIPTION_PREFIX, DESCRIPTION_SUBSTRING));
+        }
+
+        private static double best(Set<String> tokens, String term, double exact, double prefix, double substring) {
+            if (tokens.contains(term)) {
+                return exact;
+            }
+            double score = 0;
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    return prefix;
+                }
+                if (token.contains(term)) {
+                    score = substring;
+                }
+            }
+            return score;
+        }
+    }
+
+    public record Hit(Long menuId, int matchedTerms, double score, String name) {
+
+        Hit plus(Hit other) {
+            return new Hit(menuId, matchedTerms + other.matchedTerms, score + other.score, name);
+        }
+    }
+}
@@ -0,0 +1,685 @@
+package com.deliveryfood.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliveryfood.backend.dto.ArchivedItem;
+import com.deliveryfood.backend.dto.ArchivedOrder;
+import com.deliveryfood.backend.dto.OrderFact;
+import com.deliveryfood.backend.dto.OrderItemFact;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.OrderItem;
+import com.deliveryfood.backend.repository.OrderItemRepository;
+import com.deliveryfood.backend.repository.OrderRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Order and order-item facts kept as parallel primitive columns for the ops
+ * reports. Menu, restaurant and courier ids are dictionary-encoded to dense
+ * ints, so a group-by is an indexed add into a {@code double[]} rather than a
+ * map lookup. Columns are loaded once at startup and then appended to or
+ * patched in place as orders are written; queries split the rows into ranges
+ * and scan them on a dedicated fork-join pool while holding the read lock.
+ * Deleted orders stay behind as tombstones and are skipped by every scan.
+ * An update that arrives before its order does (the dispatcher can claim an
+ * order before the placement callback runs) is held back and applied when
+ * the order is appended.
+ * Orders moved to the {@link OrderArchive} are loaded from its segments, so
+ * reports cover both stores.
+ */
+@Service
+public class OrderAnalyticsStore {
+
+    private static final int LEAF_ROWS = 1 << 14;
+    private static final int INITIAL_ROWS = 1024;
+    private static final byte REMOVED = -1;
+    private static final int MAX_EARLY_PATCHES = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ForkJoinPool pool;
+
+    private int orderRows;
+    private long[] createdAt = new long[INITIAL_ROWS];
+    private double[] totals = new double[INITIAL_ROWS];
+    private double[] fees = new double[INITIAL_ROWS];
+    private int[] couriers = new int[INITIAL_ROWS];
+    private byte[] statuses = new byte[INITIAL_ROWS];
+    private final LongIntIndex rowByOrder = new LongIntIndex();
+    private final Map<Long, Patch> earlyPatches = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Patch> eldest) {
+            return size() > MAX_EARLY_PATCHES;
+        }
+    };
+
+    private int itemRows;
+    private int[] itemOrder = new int[INITIAL_ROWS];
+    private int[] itemMenu = new int[INITIAL_ROWS];
+    private int[] itemRestaurant = new int[INITIAL_ROWS];
+    private int[] itemQuantity = new int[INITIAL_ROWS];
+    private double[] itemTotals = new double[INITIAL_ROWS];
+
+    private final Dictionary menuCodes = new Dictionary();
+    private final Dictionary restaurantCodes = new Dictionary();
+    private final Dictionary courierCodes = new Dictionary();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    public OrderAnalyticsStore(@Value("${app.analytics.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PostConstruct
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock.writeLock().lock();
+            try {
+                clear();
+                try (Stream<OrderFact> facts = orderRepository.streamOrderFacts()) {
+                    facts.forEach(fact -> appendOrder(fact.id(), fact.createdAt(), fact.totalPrice(),
+                            fact.deliveryFee(), fact.status(), fact.courierId()));
+                }
+                try (Stream<OrderItemFact> facts = orderItemRepository.streamItemFacts()) {
+                    facts.forEach(fact -> appendItem(fact.orderId(), fact.menuId(), fact.restaurantId(),
+                            fact.quantity(), fact.totalPriceItem()));
+                }
+                orderArchive.forEach(this::appendArchived);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public void orderPlaced(Order order) {
+        lock.writeLock().lock();
+        try {
+            Long courierId = order.getCourierAssignment() != null && order.getCourierAssignment().getCourier() != null
+                    ? order.getCourierAssignment().getCourier().getId()
+                    : null;
+            appendOrder(order.getId(), order.getCreatedAt(), order.getTotalPrice(), order.getDeliveryFee(),
+                    order.getStatus(), courierId);
+            if (order.getItems() != null) {
+                for (OrderItem item : order.getItems()) {
+                    Long menuId = item.getMenu() != null ? item.getMenu().getId() : null;
+                    Long restaurantId = item.getMenu() != null && item.getMenu().getRestaurant() != null
+                            ? item.getMenu().getRestaurant().getId()
+                            : null;
+                    appendItem(order.getId(), menuId, restaurantId, item.getQuantity(), item.getTotalPriceItem());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void courierAssigned(Long orderId, Long courierId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByOrder.get(orderId);
+            if (row >= 0) {
+                couriers[row] = courierId != null ? courierCodes.encode(courierId) : -1;
+            } else if (orderId != null) {
+                Patch patch = earlyPatches.computeIfAbsent(orderId, id -> new Patch());
+                patch.courierSet = true;
+                patch.courierId = courierId;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void statusChanged(Long orderId, Order.Status status) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByOrder.get(orderId);
+            if (row >= 0 && statuses[row] != REMOVED) {
+                statuses[row] = statusCode(status);
+            } else if (row < 0 && orderId != null) {
+                earlyPatches.computeIfAbsent(orderId, id -> new Patch()).status = status;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void totalsChanged(Long orderId, Double totalPrice, Double deliveryFee) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByOrder.get(orderId);
+            if (row >= 0) {
+                totals[row] = amount(totalPrice);
+                fees[row] = amount(deliveryFee);
+            } else if (orderId != null) {
+                Patch patch = earlyPatches.computeIfAbsent(orderId, id -> new Patch());
+                patch.totalsSet = true;
+                patch.totalPrice = totalPrice;
+                patch.deliveryFee = deliveryFee;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void orderRemoved(Long orderId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByOrder.get(orderId);
+            if (row >= 0) {
+                statuses[row] = REMOVED;
+            } else if (orderId != null) {
+                earlyPatches.computeIfAbsent(orderId, id -> new Patch()).removed = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Orders created in {@code [from, to)} and, when a status is given, in
+     * that status. Null bounds are open.
+     */
+    public record Filter(Instant from, Instant to, Order.Status status) {
+    }
+
+    public record RestaurantRevenue(long restaurantId, double revenue, long quantity) {
+    }
+
+    public record MenuSales(long menuId, double revenue, long quantity) {
+    }
+
+    public record FeeShare(long orders, double revenue, double deliveryFees, double share) {
+    }
+
+    public record CourierThroughput(long courierId, long assigned, long delivered, double deliveredRevenue,
+            double deliveredFees) {
+    }
+
+    public int orderCount() {
+        lock.readLock().lock();
+        try {
+            return orderRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int itemCount() {
+        lock.readLock().lock();
+        try {
+            return itemRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<RestaurantRevenue> revenueByRestaurant(Filter filter) {
+        lock.readLock().lock();
+        try {
+            OrderPredicate matches = orderPredicate(filter);
+            int[] orderOf = itemOrder;
+            int[] group = itemRestaurant;
+            int[] quantity = itemQuantity;
+            double[] amount = itemTotals;
+            int groups = restaurantCodes.size();
+            Totals result = scan(itemRows, groups, (acc, lo, hi) -> {
+                for (int i = lo; i < hi; i++) {
+                    int g = group[i];
+                    if (g >= 0 && matches.test(orderOf[i])) {
+                        acc.revenue[g] += amount[i];
+                        acc.count[g] += quantity[i];
+                    }
+                }
+            });
+
+            List<RestaurantRevenue> rows = new ArrayList<>();
+            for (int g = 0; g < groups; g++) {
+                if (result.count[g] > 0) {
+                    rows.add(new RestaurantRevenue(restaurantCodes.decode(g), result.revenue[g], result.count[g]));
+                }
+            }
+            rows.sort(Comparator.comparingDouble(RestaurantRevenue::revenue).reversed());
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best-selling menus by quantity, or by revenue when {@code byRevenue}.
+     */
+    public List<MenuSales> topMenus(Filter filter, Long restaurantId, boolean byRevenue, int limit) {
+        lock.readLock().lock();
+        try {
+            OrderPredicate matches = orderPredicate(filter);
+            int restaurant = restaurantId != null ? restaurantCodes.find(restaurantId) : -1;
+            if (restaurantId != null && restaurant < 0) {
+                return List.of();
+            }
+            int[] orderOf = itemOrder;
+            int[] group = itemMenu;
+            int[] restaurants = itemRestaurant;
+            int[] quantity = itemQuantity;
+            double[] amount = itemTotals;
+            int groups = menuCodes.size();
+            Totals result = scan(itemRows, groups, (acc, lo, hi) -> {
+                for (int i = lo; i < hi; i++) {
+                    int g = group[i];
+                    if (g >= 0 && (restaurant < 0 || restaurants[i] == restaurant) && matches.test(orderOf[i])) {
+                        acc.revenue[g] += amount[i];
+                        acc.count[g] += quantity[i];
+                    }
+                }
+            });
+
+            List<MenuSales> rows = new ArrayList<>();
+            for (int g = 0; g < groups; g++) {
+                if (result.count[g] > 0) {
+                    rows.add(new MenuSales(menuCodes.decode(g), result.revenue[g], result.count[g]));
+                }
+            }
+            rows.sort(byRevenue
+                    ? Comparator.comparingDouble(MenuSales::revenue).reversed()
+                    : Comparator.comparingLong(MenuSales::quantity).reversed());
+            return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FeeShare deliveryFeeShare(Filter filter) {
+        lock.readLock().lock();
+        try {
+            OrderPredicate matches = orderPredicate(filter);
+            double[] total = totals;
+            double[] fee = fees;
+            Totals result = scan(orderRows, 1, (acc, lo, hi) -> {
+                for (int r = lo; r < hi; r++) {
+                    if (matches.test(r)) {
+                        acc.revenue[0] += total[r];
+                        acc.fees[0] += fee[r];
+                        acc.count[0]++;
+                    }
+                }
+            });
+            double revenue = result.revenue[0];
+            return new FeeShare(result.count[0], revenue, result.fees[0],
+                    revenue > 0 ? result.fees[0] / revenue : 0.0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Orders assigned to each courier and, of those, how many were delivered
+     * and what they were worth. The status filter is ignored here.
+     */
+    public List<CourierThroughput> courierThroughput(Filter filter) {
+        lock.readLock().lock();
+        try {
+            OrderPredicate matches = orderPredicate(new Filter(filter.from(), filter.to(), null));
+            byte delivered = statusCode(Order.Status.DELIVERED);
+            int[] group = couriers;
+            byte[] status = statuses;
+            double[] total = totals;
+            double[] fee = fees;
+            int groups = courierCodes.size();
+            Totals result = scan(orderRows, groups, (acc, lo, hi) -> {
+                for (int r = lo; r < hi; r++) {
+                    int g = group[r];
+                    if (g >= 0 && matches.test(r)) {
+                        acc.count[g]++;
+                        if (status[r] == delivered) {
+                            acc.delivered[g]++;
+                            acc.revenue[g] += total[r];
+                            acc.fees[g] += fee[r];
+                        }
+                    }
+                }
+            });
+
+            List<CourierThroughput> rows = new ArrayList<>();
+            for (int g = 0; g < groups; g++) {
+                if (result.count[g] > 0) {
+                    rows.add(new CourierThroughput(courierCodes.decode(g), result.count[g], result.delivered[g],
+                            result.revenue[g], result.fees[g]));
+                }
+            }
+            rows.sort(Comparator.comparingLong(CourierThroughput::delivered).reversed());
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void clear() {
+        orderRows = 0;
+        itemRows = 0;
+        rowByOrder.clear();
+        menuCodes.clear();
+        restaurantCodes.clear();
+        courierCodes.clear();
+    }
+
+    private void appendOrder(Long orderId, Instant created, Double totalPrice, Double deliveryFee,
+            Order.Status status, Long courierId) {
+        if (orderId == null || rowByOrder.get(orderId) >= 0) {
+            return;
+        }
+        if (orderRows == createdAt.length) {
+            int capacity = grow(orderRows);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+            fees = Arrays.copyOf(fees, capacity);
+            couriers = Arrays.copyOf(couriers, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        int row = orderRows++;
+        createdAt[row] = created != null ? created.getEpochSecond() : Long.MIN_VALUE;
+        totals[row] = amount(totalPrice);
+        fees[row] = amount(deliveryFee);
+        couriers[row] = courierId != null ? courierCodes.encode(courierId) : -1;
+        statuses[row] = statusCode(status);
+        rowByOrder.put(orderId, row);
+
+        Patch patch = earlyPatches.isEmpty() ? null : earlyPatches.remove(orderId);
+        if (patch != null) {
+            if (patch.courierSet) {
+                couriers[row] = patch.courierId != null ? courierCodes.encode(patch.courierId) : -1;
+            }
+            if (patch.status != null) {
+                statuses[row] = statusCode(patch.status);
+            }
+            if (patch.totalsSet) {
+                totals[row] = amount(patch.totalPrice);
+                fees[row] = amount(patch.deliveryFee);
+            }
+            if (patch.removed) {
+                statuses[row] = REMOVED;
+            }
+        }
+    }
+
+    private void appendArchived(ArchivedOrder order) {
+        if (order.id() == null || rowByOrder.get(order.id()) >= 0) {
+            return;
+        }
+        appendOrder(order.id(), order.createdAt(), order.totalPrice(), order.deliveryFee(), order.status(),
+                order.courierId());
+        for (ArchivedItem item : order.items()) {
+            appendItem(order.id(), item.menuId(), item.restaurantId(), item.quantity(), item.totalPriceItem());
+        }
+    }
+
+    private void appendItem(Long orderId, Long menuId, Long restaurantId, Integer quantity, Double totalPriceItem) {
+        int order = orderId != null ? rowByOrder.get(orderId) : -1;
+        if (order < 0) {
+            return;
+        }
+        if (itemRows == itemOrder.length) {
+            int capacity = grow(itemRows);
+            itemOrder = Arrays.copyOf(itemOrder, capacity);
+            itemMenu = Arrays.copyOf(itemMenu, capacity);
+            itemRestaurant = Arrays.copyOf(itemRestaurant, capacity);
+            itemQuantity = Arrays.copyOf(itemQuantity, capacity);
+            itemTotals = Arrays.copyOf(itemTotals, capacity);
+        }
+        int row = itemRows++;
+        itemOrder[row] = order;
+        itemMenu[row] = menuId != null ? menuCodes.encode(menuId) : -1;
+        itemRestaurant[row] = restaurantId != null ? restaurantCodes.encode(restaurantId) : -1;
+        itemQuantity[row] = quantity != null ? quantity : 0;
+        itemTotals[row] = amount(totalPriceItem);
+    }
+
+    private OrderPredicate orderPredicate(Filter filter) {
+        long from = filter.from() != null ? filter.from().getEpochSecond() : Long.MIN_VALUE;
+        long to = filter.to() != null ? filter.to().getEpochSecond() : Long.MAX_VALUE;
+        byte wanted = filter.status() != null ? statusCode(filter.status()) : REMOVED;
+        long[] created = createdAt;
+        byte[] status = statuses;
+        return row -> {
+            byte s = status[row];
+            long at = created[row];
+            return s != REMOVED && (wanted == REMOVED || s == wanted) && at >= from && at < to;
+        };
+    }
+
+    private Totals scan(int rows, int groups, RangeScan body) {
+        return pool.invoke(new ScanTask(groups, body, 0, rows));
+    }
+
+    private static byte statusCode(Order.Status status) {
+        return (byte) (status != null ? status.ordinal() : Order.Status.PENDING.ordinal());
+    }
+
+    private static int grow(int size) {
+        return Math.max(INITIAL_ROWS, size + (size >> 1));
+    }
+
+    private static double amount(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    @FunctionalInterface
+    private interface OrderPredicate {
+        boolean test(int orderRow);
+    }
+
+    @FunctionalInterface
+    private interface RangeScan {
+        void scan(Totals accumulator, int lo, int hi);
+    }
+
+    /**
+     * Per-group running sums; each leaf task fills its own and the fork-join
+     * tree adds them pairwise on the way back up.
+     */
+    private static final class Totals {
+        final double[] revenue;
+        final double[] fees;
+        final long[] count;
+        final long[] delivered;
+
+        Totals(int groups) {
+            revenue = new double[groups];
+            fees = new double[groups];
+            count = new long[groups];
+            delivered = new long[groups];
+        }
+
+        Totals merge(Totals other) {
+            for (int g = 0; g < revenue.length; g++) {
+                revenue[g] += other.revenue[g];
+                fees[g] += other.fees[g];
+                count[g] += other.count[g];
+                delivered[g] += other.delivered[g];
+            }
+            return this;
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Totals> {
+        private final int groups;
+        private final RangeScan body;
+        private final int lo;
+        private final int hi;
+
+        ScanTask(int groups, RangeScan body, int lo, int hi) {
+            this.groups = groups;
+            this.body = body;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (hi - lo <= LEAF_ROWS) {
+                Totals accumulator = new Totals(groups);
+                body.scan(accumulator, lo, hi);
+                return accumulator;
+            }
+            int mid = (lo + hi) >>> 1;
+            ScanTask left = new ScanTask(groups, body, lo, mid);
+            left.fork();
+            Totals right = new ScanTask(groups, body, mid, hi).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Maps sparse ids to dense codes {@code 0..size-1} and back.
+     */
+    private static final class Dictionary {
+        private final LongIntIndex codes = new LongIntIndex();
+        private long[] ids = new long[64];
+        private int size;
+
+        int encode(long id) {
+            int code = codes.get(id);
+            if (code >= 0) {
+                return code;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size] = id;
+            codes.put(id, size);
+            return size++;
+        }
+
+        int find(long id) {
+            return codes.get(id);
+        }
+
+        long decode(int code) {
+            return ids[code];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            codes.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * Open-addressed long to non-negative int map; -1 means absent. Keys are
+     * database ids, so 0 is free to mark an empty slot.
+     */
+    /**
+     * Updates received for an order that is not in the columns yet.
+     */
+    private static final class Patch {
+        private boolean courierSet;
+        private Long courierId;
+        private Order.Status status;
+        private boolean totalsSet;
+        private Double totalPrice;
+        private Double deliveryFee;
+        private boolean removed;
+    }
+
+    private static final class LongIntIndex {
+        private long[] keys = new long[64];
+        private int[] values = new int[64];
+        private int size;
+
+        int get(long key) {
+            if (key == 0) {
+                return -1;
+            }
+            int mask = keys.length - 1;
+            for (int slot = hash(key, mask); ; slot = (slot + 1) & mask) {
+                long candidate = keys[slot];
+                if (candidate == key) {
+                    return values[slot];
+                }
+                if (candidate == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if (key == 0) {
+                return;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key, mask);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        void clear() {
+            keys = new long[64];
+            values = new int[64];
+            size = 0;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = hash(oldKeys[i], mask);
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int hash(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,754 @@
+package com.deliveryfood.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.dto.ArchivedItem;
+import com.deliveryfood.backend.dto.ArchivedOrder;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.repository.OrderRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Append-only store for archived orders. Each archiving batch writes one
+ * immutable segment file whose records are sorted by customer, newest first,
+ * followed by a sparse index holding the key and offset of every
+ * {@value #INDEX_INTERVAL}th record, and the segment's customer and oldest
+ * creation time bounds. Segments are memory-mapped read-only; a customer
+ * lookup skips segments whose bounds rule it out, binary-searches the index of
+ * the rest and scans forward from there.
+ * <p>
+ * Segments are merged size-tiered: once {@value #MERGE_FACTOR} segments of the
+ * same size class exist they are rewritten as one, up to
+ * {@link #MAX_SEGMENT_BYTES}. The number of segments, and with it the cost of
+ * a lookup and the number of mappings, grows with the logarithm of the
+ * archive size rather than with every batch.
+ * <p>
+ * A segment is written under a {@code .tmp} name and only renamed into place
+ * once the database rows it replaces are deleted. On startup a leftover
+ * temporary segment is kept if none of its orders are still in the database
+ * (the delete committed) and dropped otherwise. A merged segment lists the
+ * segments it replaces, so inputs left behind by a crash mid-merge are
+ * deleted on startup as well.
+ */
+@Service
+public class OrderArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchive.class);
+
+    static final int INDEX_INTERVAL = 32;
+    static final int MERGE_FACTOR = 4;
+    static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private static final int MAGIC = 0x47475347;
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 12;
+    private static final String SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".seg.tmp";
+    private static final String MERGE_SUFFIX = ".seg.merging";
+    private static final Order.Status[] STATUSES = Order.Status.values();
+
+    private static final Comparator<ArchivedOrder> SEGMENT_ORDER = Comparator
+            .comparing((ArchivedOrder o) -> id(o.customerId()))
+            .thenComparing(o -> o.createdAt() != null ? o.createdAt() : Instant.MIN, Comparator.reverseOrder())
+            .thenComparing(o -> id(o.id()), Comparator.reverseOrder());
+
+    private static final Comparator<ArchivedOrder> NEWEST_FIRST = Comparator
+            .comparing((ArchivedOrder o) -> o.createdAt() != null ? o.createdAt() : Instant.MIN,
+                    Comparator.reverseOrder())
+            .thenComparing(o -> id(o.id()), Comparator.reverseOrder());
+
+    private final Path dir;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile List<Segment> segments = List.of();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    public OrderArchive(@Value("${app.archive.dir:archive}") String dir) {
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void open() {
+        open(ids -> orderRepository.countByIdIn(ids) > 0);
+    }
+
+    /**
+     * Maps the segments on disk, settling leftovers of an interrupted run;
+     * {@code stillInDatabase} tells whether a batch's delete never committed.
+     */
+    synchronized void open(Predicate<List<Long>> stillInDatabase) {
+        try {
+            Files.createDirectories(dir);
+            for (Path merging : list("*" + MERGE_SUFFIX)) {
+                log.warn("Dropping unfinished archive merge {}", merging);
+                Files.deleteIfExists(merging);
+            }
+            for (Path temp : list("*" + TEMP_SUFFIX)) {
+                recover(temp, stillInDatabase);
+            }
+
+            List<Segment> mapped = new ArrayList<>();
+            Set<Long> replaced = new HashSet<>();
+            for (Path file : list("*" + SUFFIX)) {
+                Segment segment = Segment.map(file);
+                mapped.add(segment);
+                for (long input : segment.inputs) {
+                    replaced.add(input);
+                }
+                sequence.accumulateAndGet(segment.sequence, Math::max);
+            }
+            List<Segment> live = new ArrayList<>();
+            for (Segment segment : mapped) {
+                if (replaced.contains(segment.sequence)) {
+                    log.warn("Deleting archive segment {} already merged into a newer one", segment);
+                    Files.deleteIfExists(segment.file);
+                } else {
+                    live.add(segment);
+                }
+            }
+            segments = List.copyOf(live);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open order archive in " + dir, e);
+        }
+    }
+
+    /**
+     * Writes the orders to a new temporary segment and forces it to disk. The
+     * caller deletes the database rows and then either publishes or discards
+     * the result.
+     */
+    public Pending write(List<ArchivedOrder> orders) throws IOException {
+        Files.createDirectories(dir);
+        Path target = segmentPath(sequence.incrementAndGet());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        List<ArchivedOrder> sorted = new ArrayList<>(orders);
+        sorted.sort(SEGMENT_ORDER);
+        try (SegmentWriter writer = new SegmentWriter(temp, sorted.size())) {
+            ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+            for (ArchivedOrder order : sorted) {
+                long second = order.createdAt() != null ? order.createdAt().getEpochSecond() : Long.MIN_VALUE;
+                int nano = order.createdAt() != null ? order.createdAt().getNano() : 0;
+                encode(record, order, second, nano);
+                writer.append(new Key(id(order.customerId()), second, nano, id(order.id())), record);
+            }
+            writer.finish(new long[0]);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new Pending(temp, target, sorted.size());
+    }
+
+    /**
+     * Merges segments of the same size class until no class holds
+     * {@value #MERGE_FACTOR} of them, and returns how many merges ran.
+     */
+    public synchronized int compact() throws IOException {
+        int merges = 0;
+        for (List<Segment> group = nextMergeGroup(); group != null; group = nextMergeGroup()) {
+            merge(group);
+            merges++;
+        }
+        return merges;
+    }
+
+    /**
+     * The customer's archived orders strictly older than the cursor, newest
+     * first; a null cursor starts from the newest.
+     */
+    public List<ArchivedOrder> history(Long customerId, Instant before, Long beforeId, int limit) {
+        List<ArchivedOrder> found = new ArrayList<>();
+        if (customerId == null || limit <= 0) {
+            return found;
+        }
+        Key after = before != null
+                ? new Key(customerId, before.getEpochSecond(), before.getNano(), id(beforeId))
+                : new Key(customerId, Long.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+        for (Segment segment : segments) {
+            if (segment.mayHoldOlder(after)) {
+                segment.collect(after, limit, found);
+            }
+        }
+        found.sort(NEWEST_FIRST);
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    public void forEach(Consumer<ArchivedOrder> action) {
+        for (Segment segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long orderCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.count;
+        }
+        return count;
+    }
+
+    public final class Pending {
+        private final Path temp;
+        private final Path target;
+        private final int size;
+
+        private Pending(Path temp, Path target, int size) {
+            this.temp = temp;
+            this.target = target;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void publish() throws IOException {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            replace(List.of(), Segment.map(target));
+        }
+
+        public void discard() {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("Could not delete unpublished segment {}", temp, e);
+            }
+        }
+    }
+
+    private synchronized void replace(List<Segment> removed, Segment added) {
+        List<Segment> next = new ArrayList<>(segments);
+        next.removeAll(removed);
+        next.add(added);
+        segments = List.copyOf(next);
+    }
+
+    private List<Segment> nextMergeGroup() {
+        Map<Integer, List<Segment>> classes = new TreeMap<>();
+        for (Segment segment : segments) {
+            // floor(log4(count)): segments within a factor of four of each other
+            int sizeClass = (63 - Long.numberOfLeadingZeros(Math.max(1, segment.count))) / 2;
+            classes.computeIfAbsent(sizeClass, k -> new ArrayList<>()).add(segment);
+        }
+        for (List<Segment> candidates : classes.values()) {
+            if (candidates.size() < MERGE_FACTOR) {
+                continue;
+            }
+            candidates.sort(Comparator.comparingLong(segment -> segment.sequence));
+            List<Segment> group = candidates.subList(0, MERGE_FACTOR);
+            long bytes = 0;
+            for (Segment segment : group) {
+                bytes += segment.buffer.capacity();
+            }
+            if (bytes <= MAX_SEGMENT_BYTES) {
+                return new ArrayList<>(group);
+            }
+        }
+        return null;
+    }
+
+    private void merge(List<Segment> group) throws IOException {
+        Path target = segmentPath(sequence.incrementAndGet());
+        Path temp = target.resolveSibling(target.getFileName() + ".merging");
+        int count = 0;
+        long[] inputs = new long[group.size()];
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>();
+        for (int i = 0; i < group.size(); i++) {
+            Segment segment = group.get(i);
+            count += segment.count;
+            inputs[i] = segment.sequence;
+            Cursor cursor = new Cursor(segment);
+            if (cursor.valid()) {
+                cursors.add(cursor);
+            }
+        }
+
+        try (SegmentWriter writer = new SegmentWriter(temp, count)) {
+            byte[] record = new byte[256];
+            while (!cursors.isEmpty()) {
+                Cursor cursor = cursors.poll();
+                int length = cursor.segment.buffer.getInt(cursor.at);
+                if (record.length < length) {
+                    record = new byte[Math.max(length, record.length * 2)];
+                }
+                cursor.segment.buffer.get(cursor.at + 4, record, 0, length);
+                writer.append(cursor.key, record, length);
+                cursor.advance();
+                if (cursor.valid()) {
+                    cursors.add(cursor);
+                }
+            }
+            writer.finish(inputs);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        replace(group, Segment.map(target));
+        for (Segment segment : group) {
+            // Readers that still hold the old mapping keep working after the unlink
+            Files.deleteIfExists(segment.file);
+        }
+        log.info("Merged {} archive segments into {} ({} orders)", group.size(), target.getFileName(), count);
+    }
+
+    private void recover(Path temp, Predicate<List<Long>> stillInDatabase) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try {
+            Segment.map(temp).forEach(order -> ids.add(order.id()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Dropping incomplete archive segment {}", temp, e);
+            Files.deleteIfExists(temp);
+            return;
+        }
+        if (!ids.isEmpty() && stillInDatabase.test(ids)) {
+            log.warn("Dropping archive segment {} whose orders were never deleted", temp);
+            Files.deleteIfExists(temp);
+        } else {
+            String name = temp.getFileName().toString();
+            Path target = temp.resolveSibling(name.substring(0, name.length() - ".tmp".length()));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Recovered archive segment {}", target);
+        }
+    }
+
+    private List<Path> list(String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.naturalOrder());
+        return files;
+    }
+
+    private Path segmentPath(long number) {
+        return dir.resolve(String.format("segment-%019d%s", number, SUFFIX));
+    }
+
+    private static void encode(ByteArrayOutputStream bytes, ArchivedOrder order, long second, int nano)
+            throws IOException {
+        bytes.reset();
+        DataOutputStream record = new DataOutputStream(bytes);
+        record.writeLong(id(order.id()));
+        record.writeLong(id(order.customerId()));
+        record.writeLong(id(order.courierId()));
+        record.writeByte(order.status() != null ? order.status().ordinal() : -1);
+        record.writeLong(second);
+        record.writeInt(nano);
+        record.writeDouble(amount(order.totalPrice()));
+        record.writeDouble(amount(order.deliveryFee()));
+        writeString(record, order.courierName());
+        List<ArchivedItem> items = order.items() != null ? order.items() : List.of();
+        record.writeInt(items.size());
+        for (ArchivedItem item : items) {
+            record.writeLong(id(item.id()));
+            record.writeLong(id(item.menuId()));
+            record.writeLong(id(item.restaurantId()));
+            record.writeInt(item.quantity() != null ? item.quantity() : Integer.MIN_VALUE);
+            record.writeDouble(amount(item.price()));
+            record.writeDouble(amount(item.totalPriceItem()));
+            writeString(record, item.menuName());
+            writeString(record, item.menuImageUrl());
+        }
+        record.flush();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring("segment-".length(), name.indexOf('.')));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /** Database ids start at 1, so 0 stands in for null on disk. */
+    private static long id(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static Long nullableId(long value) {
+        return value != 0 ? value : null;
+    }
+
+    private static double amount(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double nullableAmount(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * Segment sort key: customer ascending, then creation time and id
+     * descending.
+     */
+    private record Key(long customerId, long second, int nano, long orderId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int c = Long.compare(customerId, other.customerId);
+            if (c != 0) {
+                return c;
+            }
+            c = Long.compare(other.second, second);
+            if (c != 0) {
+                return c;
+            }
+            c = Integer.compare(other.nano, nano);
+            return c != 0 ? c : Long.compare(other.orderId, orderId);
+        }
+    }
+
+    /**
+     * Streams records, already in key order, into a new segment file: header,
+     * length-prefixed records, then the footer with index, bounds and the
+     * sequence numbers of any segments this one replaces.
+     */
+    private static final class SegmentWriter implements Closeable {
+        private final FileOutputStream file;
+        private final DataOutputStream out;
+        private final int count;
+        private final List<Key> index = new ArrayList<>();
+        private final List<Integer> offsets = new ArrayList<>();
+        private int written;
+        private long minCustomer = Long.MAX_VALUE;
+        private long maxCustomer = Long.MIN_VALUE;
+        private long minSecond = Long.MAX_VALUE;
+
+        SegmentWriter(Path path, int count) throws IOException {
+            this.file = new FileOutputStream(path.toFile());
+            this.out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+            this.count = count;
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(count);
+        }
+
+        void append(Key key, ByteArrayOutputStream record) throws IOException {
+            mark(key, record.size());
+            record.writeTo(out);
+        }
+
+        void append(Key key, byte[] record, int length) throws IOException {
+            mark(key, length);
+            out.write(record, 0, length);
+        }
+
+        private void mark(Key key, int length) throws IOException {
+            if ((long) out.size() + 4 + length > MAX_SEGMENT_BYTES) {
+                throw new IOException("Archive segment would exceed " + MAX_SEGMENT_BYTES + " bytes");
+            }
+            if (written % INDEX_INTERVAL == 0) {
+                index.add(key);
+                offsets.add(out.size());
+            }
+            minCustomer = Math.min(minCustomer, key.customerId());
+            maxCustomer = Math.max(maxCustomer, key.customerId());
+            minSecond = Math.min(minSecond, key.second());
+            written++;
+            out.writeInt(length);
+        }
+
+        void finish(long[] inputs) throws IOException {
+            if (written != count) {
+                throw new IllegalStateException("Segment declared " + count + " records but got " + written);
+            }
+            int footer = out.size();
+            out.writeInt(index.size());
+            for (int i = 0; i < index.size(); i++) {
+                Key key = index.get(i);
+                out.writeLong(key.customerId());
+                out.writeLong(key.second());
+                out.writeInt(key.nano());
+                out.writeLong(key.orderId());
+                out.writeInt(offsets.get(i));
+            }
+            out.writeLong(minCustomer);
+            out.writeLong(maxCustomer);
+            out.writeLong(minSecond);
+            out.writeInt(inputs.length);
+            for (long input : inputs) {
+                out.writeLong(input);
+            }
+            out.writeInt(footer);
+            out.flush();
+            file.getChannel().force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final long sequence;
+        private final ByteBuffer buffer;
+        private final int count;
+        private final int recordsEnd;
+        private final Key[] index;
+        private final int[] offsets;
+        private final long minCustomer;
+        private final long maxCustomer;
+        private final long minSecond;
+        private final long[] inputs;
+
+        private Segment(Path file, ByteBuffer buffer, int count, int recordsEnd, Key[] index, int[] offsets,
+                long minCustomer, long maxCustomer, long minSecond, long[] inputs) {
+            this.file = file;
+            this.sequence = sequenceOf(file);
+            this.buffer = buffer;
+            this.count = count;
+            this.recordsEnd = recordsEnd;
+            this.index = index;
+            this.offsets = offsets;
+            this.minCustomer = minCustomer;
+            this.maxCustomer = maxCustomer;
+            this.minSecond = minSecond;
+            this.inputs = inputs;
+        }
+
+        static Segment map(Path file) throws IOException {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.capacity() < HEADER_BYTES + 4 + 24 + 4 + 4 || buffer.getInt(0) != MAGIC
+                    || buffer.getInt(4) != FORMAT) {
+                throw new IOException("Not an order archive segment: " + file);
+            }
+            int count = buffer.getInt(8);
+            int footer = buffer.getInt(buffer.capacity() - 4);
+            int entries = buffer.getInt(footer);
+            Key[] index = new Key[entries];
+            int[] offsets = new int[entries];
+            int at = footer + 4;
+            for (int i = 0; i < entries; i++) {
+                index[i] = new Key(buffer.getLong(at), buffer.getLong(at + 8), buffer.getInt(at + 16),
+                        buffer.getLong(at + 20));
+                offsets[i] = buffer.getInt(at + 28);
+                at += 32;
+            }
+            long minCustomer = buffer.getLong(at);
+            long maxCustomer = buffer.getLong(at + 8);
+            long minSecond = buffer.getLong(at + 16);
+            long[] inputs = new long[buffer.getInt(at + 24)];
+            at += 28;
+            for (int i = 0; i < inputs.length; i++, at += 8) {
+                inputs[i] = buffer.getLong(at);
+            }
+            return new Segment(file, buffer, count, footer, index, offsets, minCustomer, maxCustomer, minSecond,
+                    inputs);
+        }
+
+        /**
+         * False when the segment cannot hold the customer, or when every
+         * record in it is newer than the cursor.
+         */
+        boolean mayHoldOlder(Key after) {
+            return after.customerId() >= minCustomer && after.customerId() <= maxCustomer
+                    && minSecond <= after.second();
+        }
+
+        void collect(Key after, int limit, List<ArchivedOrder> found) {
+            int lo = 0;
+            int hi = index.length - 1;
+            int start = HEADER_BYTES;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (index[mid].compareTo(after) <= 0) {
+                    start = offsets[mid];
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+
+            int taken = 0;
+            for (int at = start; at < recordsEnd && taken < limit; at += 4 + buffer.getInt(at)) {
+                Key key = keyAt(at + 4);
+                if (key.customerId() > after.customerId()) {
+                    return;
+                }
+                if (key.compareTo(after) > 0) {
+                    found.add(read(at + 4));
+                    taken++;
+                }
+            }
+        }
+
+        void forEach(Consumer<ArchivedOrder> action) {
+            for (int at = HEADER_BYTES; at < recordsEnd; at += 4 + buffer.getInt(at)) {
+                action.accept(read(at + 4));
+            }
+        }
+
+        private Key keyAt(int at) {
+            return new Key(buffer.getLong(at + 8), buffer.getLong(at + 25), buffer.getInt(at + 33),
+                    buffer.getLong(at));
+        }
+
+        private ArchivedOrder read(int start) {
+            Reader in = new Reader(buffer, start);
+            Long id = nullableId(in.getLong());
+            Long customerId = nullableId(in.getLong());
+            Long courierId = nullableId(in.getLong());
+            byte status = in.getByte();
+            long second = in.getLong();
+            int nano = in.getInt();
+            Double totalPrice = nullableAmount(in.getDouble());
+            Double deliveryFee = nullableAmount(in.getDouble());
+            String courierName = in.getString();
+            int itemCount = in.getInt();
+            List<ArchivedItem> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                Long itemId = nullableId(in.getLong());
+                Long menuId = nullableId(in.getLong());
+                Long restaurantId = nullableId(in.getLong());
+                int quantity = in.getInt();
+                Double price = nullableAmount(in.getDouble());
+                Double total = nullableAmount(in.getDouble());
+                String menuName = in.getString();
+                String imageUrl = in.getString();
+                items.add(new ArchivedItem(id, itemId, menuId, restaurantId, menuName, imageUrl,
+                        quantity != Integer.MIN_VALUE ? quantity : null, price, total));
+            }
+            return new ArchivedOrder(id, customerId, courierId, status >= 0 ? STATUSES[status] : null,
+                    second != Long.MIN_VALUE ? Instant.ofEpochSecond(second, nano) : null,
+                    totalPrice, deliveryFee, courierName, items);
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
+    }
+
+    /**
+     * Position of a merge in one input segment.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Segment segment;
+        private int at = HEADER_BYTES;
+        private Key key;
+
+        Cursor(Segment segment) {
+            this.segment = segment;
+            this.key = valid() ? segment.keyAt(at + 4) : null;
+        }
+
+        boolean valid() {
+            return at < segment.recordsEnd;
+        }
+
+        void advance() {
+            at += 4 + segment.buffer.getInt(at);
+            key = valid() ? segment.keyAt(at + 4) : null;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return key.compareTo(other.key);
+        }
+    }
+
+    /**
+     * Sequential reads over absolute positions, so concurrent readers can
+     * share one mapped buffer.
+     */
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private int at;
+
+        Reader(ByteBuffer buffer, int at) {
+            this.buffer = buffer;
+            this.at = at;
+        }
+
+        long getLong() {
+            long value = buffer.getLong(at);
+            at += 8;
+            return value;
+        }
+
+        int getInt() {
+            int value = buffer.getInt(at);
+            at += 4;
+            return value;
+        }
+
+        byte getByte() {
+            return buffer.get(at++);
+        }
+
+        double getDouble() {
+            double value = buffer.getDouble(at);
+            at += 8;
+            return value;
+        }
+
+        String getString() {
+            int length = getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(at, bytes);
+            at += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
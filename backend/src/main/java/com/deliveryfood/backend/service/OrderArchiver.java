@@ -0,0 +1,201 @@
+package com.deliveryfood.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliveryfood.backend.dto.ArchivedItem;
+import com.deliveryfood.backend.dto.ArchivedOrder;
+import com.deliveryfood.backend.repository.CourierAssignmentRepository;
+import com.deliveryfood.backend.repository.OrderItemRepository;
+import com.deliveryfood.backend.repository.OrderRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves delivered orders older than {@code app.archive.min-age} out of the
+ * orders tables and into {@link OrderArchive} segments. Each batch runs in
+ * one transaction: the rows are locked by a version bump, copied into a
+ * temporary segment that is forced to disk, then deleted; the segment is
+ * published only once that delete has committed. In-memory revenue and
+ * report totals already hold these orders and are left untouched.
+ * <p>
+ * Runs happen on a thread of their own, so the fsyncs and bulk deletes never
+ * hold up the shared scheduler that flushes carts and dispatches orders, and
+ * each run moves at most {@code app.archive.max-batches-per-run} batches; a
+ * large backlog is worked off over several runs.
+ * <p>
+ * Off unless {@code app.archive.enabled=true}: customer history, revenue
+ * reports and analytics read the archive, but the order listing, lookup by
+ * id and the courier and assignment views still only query the database, so
+ * archived orders would vanish from them.
+ */
+@Service
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private CourierAssignmentRepository courierAssignmentRepository;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.archive.min-age:30d}")
+    private Duration minAge;
+
+    @Value("${app.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.archive.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1), r -> {
+                Thread thread = new Thread(r, "order-archiver");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hands a run to the archiver thread; skipped while one is still queued.
+     */
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+            initialDelayString = "${app.archive.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                archive();
+            } catch (RuntimeException e) {
+                log.warn("Order archiving failed", e);
+            }
+        });
+    }
+
+    /**
+     * Archives up to {@code max-batches-per-run} batches of eligible orders,
+     * merges the new segments into the archive's size tiers and returns how
+     * many orders were moved.
+     */
+    public int archive() {
+        lock.lock();
+        try {
+            Instant cutoff = Instant.now().minus(minAge);
+            int archived = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<Long> ids = orderRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                int moved = archiveBatch(ids);
+                archived += moved;
+                if (moved == 0 || ids.size() < batchSize) {
+                    break;
+                }
+            }
+            if (archived > 0) {
+                log.info("Archived {} delivered orders created before {}", archived, cutoff);
+                try {
+                    orderArchive.compact();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to merge archive segments", e);
+                }
+            }
+            return archived;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int archiveBatch(List<Long> ids) {
+        OrderArchive.Pending[] pending = new OrderArchive.Pending[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (orderRepository.lockForArchive(ids) == 0) {
+                    return;
+                }
+                List<ArchivedOrder> rows = orderRepository.findArchiveRows(ids);
+                List<Long> lockedIds = new ArrayList<>(rows.size());
+                for (ArchivedOrder row : rows) {
+                    lockedIds.add(row.id());
+                }
+                Map<Long, List<ArchivedItem>> items = new HashMap<>();
+                for (ArchivedItem item : orderItemRepository.findArchiveItems(lockedIds)) {
+                    items.computeIfAbsent(item.orderId(), id -> new ArrayList<>()).add(item);
+                }
+                List<ArchivedOrder> orders = new ArrayList<>(rows.size());
+                for (ArchivedOrder row : rows) {
+                    orders.add(row.withItems(items.getOrDefault(row.id(), List.of())));
+                }
+
+                try {
+                    pending[0] = orderArchive.write(orders);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to write archive segment", e);
+                }
+                orderItemRepository.deleteByOrderIds(lockedIds);
+                courierAssignmentRepository.deleteByOrderIds(lockedIds);
+                int deleted = orderRepository.deleteDelivered(lockedIds);
+                if (deleted != orders.size()) {
+                    throw new IllegalStateException(
+                            "Archived " + orders.size() + " orders but deleted " + deleted);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (pending[0] != null) {
+                pending[0].discard();
+            }
+            throw e;
+        }
+
+        if (pending[0] == null) {
+            return 0;
+        }
+        try {
+            pending[0].publish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to publish archive segment", e);
+        }
+        return pending[0].size();
+    }
+}
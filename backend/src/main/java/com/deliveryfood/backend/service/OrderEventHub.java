@@ -0,0 +1,239 @@
+package com.deliveryfood.backend.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.deliveryfood.backend.dto.OrderEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process fan-out of order events to Server-Sent Events subscribers. Events
+ * are published after commit into a bounded mailbox per subscriber. A
+ * subscriber with mail gets a writer thread of its own for as long as it
+ * drains, so each stream sees events in commit order and a client whose
+ * socket stalls ties up only its own writer until the container's write
+ * timeout fails the send. Idle writers beyond
+ * {@code app.events.writer-threads} are released; at most
+ * {@code app.events.max-writer-threads} drain at once, and a subscriber that
+ * finds none free is picked up by its next event or heartbeat. A subscriber
+ * whose mailbox fills up has fallen too far behind and is disconnected; the
+ * client reconnects and refetches. Neither publishing nor the heartbeat ever
+ * writes to a socket, and only a subscriber's own writer completes its
+ * emitter, since completing waits for any write in progress.
+ */
+@Service
+public class OrderEventHub {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final OrderMetrics orderMetrics;
+    private final int maxPending;
+    private final ThreadPoolExecutor writers;
+
+    public OrderEventHub(OrderMetrics orderMetrics,
+            @Value("${app.events.writer-threads:4}") int writerThreads,
+            @Value("${app.events.max-writer-threads:256}") int maxWriterThreads,
+            @Value("${app.events.max-pending:64}") int maxPending) {
+        this.orderMetrics = orderMetrics;
+        this.maxPending = maxPending;
+        AtomicInteger count = new AtomicInteger();
+        // No queue: every drain runs on a thread of its own or waits for the subscriber's next event
+        this.writers = new ThreadPoolExecutor(writerThreads, Math.max(writerThreads, maxWriterThreads),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "order-events-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public SseEmitter subscribeOrder(Long orderId) {
+        return subscribe("order:" + orderId);
+    }
+
+    public SseEmitter subscribeCustomer(Long customerId) {
+        return subscribe("customer:" + customerId);
+    }
+
+    public SseEmitter subscribeCourier(Long courierId) {
+        return subscribe("courier:" + courierId);
+    }
+
+    /**
+     * Whether any customer stream is open, letting publishers skip looking up
+     * the customer of an order nobody could be listening for.
+     */
+    public boolean watchesCustomers() {
+        for (String topic : subscribers.keySet()) {
+            if (topic.startsWith("customer:")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void publish(OrderEvent event) {
+        AfterCommit.run(() -> {
+            orderMetrics.record(event);
+            deliver(event);
+        });
+    }
+
+    @Scheduled(fixedRate = 25000)
+    public void heartbeat() {
+        subscribers.values().forEach(topic -> topic.forEach(
+                subscriber -> subscriber.enqueue(SseEmitter.event().comment("ping"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+        subscribers.values().forEach(topic -> topic.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private SseEmitter subscribe(String topic) {
+        return subscribe(topic, new SseEmitter(EMITTER_TIMEOUT_MS));
+    }
+
+    SseEmitter subscribe(String topic, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        subscribers.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.emitter.onCompletion(subscriber::detach);
+        subscriber.emitter.onTimeout(subscriber::detach);
+        subscriber.emitter.onError(e -> subscriber.detach());
+        subscriber.enqueue(SseEmitter.event().comment("subscribed " + topic));
+        return subscriber.emitter;
+    }
+
+    private void deliver(OrderEvent event) {
+        publishTo("order:" + event.orderId(), event);
+        if (event.customerId() != null) {
+            publishTo("customer:" + event.customerId(), event);
+        }
+        if (event.courierId() != null) {
+            publishTo("courier:" + event.courierId(), event);
+        }
+    }
+
+    private void publishTo(String topic, OrderEvent event) {
+        Set<Subscriber> topicSubscribers = subscribers.get(topic);
+        if (topicSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : topicSubscribers) {
+            // A builder renders once, so every subscriber gets its own
+            subscriber.enqueue(SseEmitter.event()
+                    .name(event.type())
+                    .id(event.orderId() + "-" + event.at().toEpochMilli())
+                    .data(event));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.topic, (t, topicSubscribers) -> {
+            topicSubscribers.remove(subscriber);
+            return topicSubscribers.isEmpty() ? null : topicSubscribers;
+        });
+    }
+
+    private final class Subscriber implements Runnable {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending = new ArrayBlockingQueue<>(maxPending);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile Throwable closeCause;
+
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                close(new IOException("Subscriber to " + topic + " fell " + maxPending + " events behind"));
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        closeCause = e;
+                        detach();
+                    }
+                }
+                if (closed) {
+                    finish();
+                }
+                draining.set(false);
+            } while ((closed ? !completed.get() : !pending.isEmpty()) && draining.compareAndSet(false, true));
+        }
+
+        /**
+         * Stops delivery after the emitter has already completed, timed out
+         * or failed.
+         */
+        void detach() {
+            closed = true;
+            pending.clear();
+            unsubscribe(this);
+        }
+
+        /**
+         * Disconnects the subscriber. The emitter is completed right here if
+         * no write is in progress, otherwise by the writer once its send
+         * returns.
+         */
+        void close(Throwable cause) {
+            if (closed) {
+                return;
+            }
+            closeCause = cause;
+            detach();
+            if (draining.compareAndSet(false, true)) {
+                finish();
+                draining.set(false);
+            }
+        }
+
+        private void finish() {
+            if (completed.compareAndSet(false, true) && closeCause != null) {
+                emitter.completeWithError(closeCause);
+            }
+        }
+    }
+}
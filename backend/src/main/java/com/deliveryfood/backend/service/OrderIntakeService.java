@@ -0,0 +1,77 @@
+package com.deliveryfood.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.deliveryfood.backend.dto.OrderEvent;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.OrderItem;
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.repository.OrderRepository;
+
+/**
+ * Prices and persists a new order in one transaction. Menus are priced from
+ * the in-memory {@link PriceBook} and the order is saved once with its items
+ * cascaded, so Hibernate flushes the order row and every item row as JDBC
+ * batches at commit. New orders always start as PENDING; every later status
+ * goes through {@link OrderStatusService}.
+ */
+@Service
+public class OrderIntakeService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PriceBook priceBook;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private OrderAnalyticsStore orderAnalyticsStore;
+
+    @Autowired
+    private OrderEventHub orderEventHub;
+
+    @Transactional
+    public Order placeOrder(User customer, List<OrderItem> requestedItems) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(Order.Status.PENDING);
+
+        price(order, priceBook.quote(requestedItems));
+
+        Order saved = orderRepository.save(order);
+        AfterCommit.run(() -> {
+            revenueRollupService.record(saved.getCreatedAt(), saved.getTotalPrice());
+            orderAnalyticsStore.orderPlaced(saved);
+        });
+        orderEventHub.publish(OrderEvent.of(OrderEvent.CREATED, saved));
+        return saved;
+    }
+
+    /**
+     * Builds the order's items from a quote and sets the delivery fee and
+     * total.
+     */
+    public static void price(Order order, PriceBook.Quote quote) {
+        List<OrderItem> items = new ArrayList<>(quote.lines().size());
+        for (PriceBook.Line line : quote.lines()) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setMenu(line.menu());
+            item.setQuantity(line.quantity());
+            item.setPrice(line.price());
+            item.setTotalPriceItem(line.total());
+            items.add(item);
+        }
+        order.setItems(items);
+        order.setDeliveryFee(quote.deliveryFee());
+        order.setTotalPrice(quote.total());
+    }
+}
@@ -0,0 +1,50 @@
+package com.deliveryfood.backend.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.dto.OrderEvent;
+import com.deliveryfood.backend.model.Order;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Business counters for the order lifecycle, fed from committed order events:
+ * {@code orders.placed}, {@code orders.assigned} and
+ * {@code orders.status.changes} tagged with the new status.
+ */
+@Service
+public class OrderMetrics {
+
+    private final Counter created;
+    private final Counter assigned;
+    private final Map<Order.Status, Counter> statusChanges = new EnumMap<>(Order.Status.class);
+
+    public OrderMetrics(MeterRegistry registry) {
+        created = Counter.builder("orders.placed").description("Orders placed").register(registry);
+        assigned = Counter.builder("orders.assigned").description("Couriers assigned to orders").register(registry);
+        for (Order.Status status : Order.Status.values()) {
+            statusChanges.put(status, Counter.builder("orders.status.changes")
+                    .description("Order status updates by new status")
+                    .tag("status", status.name())
+                    .register(registry));
+        }
+    }
+
+    public void record(OrderEvent event) {
+        switch (event.type()) {
+            case OrderEvent.CREATED -> created.increment();
+            case OrderEvent.ASSIGNED -> assigned.increment();
+            case OrderEvent.STATUS_CHANGED -> {
+                if (event.status() != null) {
+                    statusChanges.get(event.status()).increment();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.deliveryfood.backend.service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.deliveryfood.backend.dto.OrderEvent;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.repository.CourierAssignmentRepository;
+import com.deliveryfood.backend.repository.OrderRepository;
+
+/**
+ * The order lifecycle PENDING → ASSIGNED → PICKED_UP → ON_DELIVERY → DELIVERED.
+ * Orders only ever move one step forward, and ASSIGNED is entered solely by
+ * {@link CourierAssignmentService} claiming the order. Every other step is a
+ * single {@code UPDATE ... WHERE id = ? AND status = ?} against the one legal
+ * predecessor, so a successful status ping is one round trip and two
+ * concurrent updates cannot both apply; the order is only read again to
+ * explain why an update matched nothing.
+ */
+@Service
+public class OrderStatusService {
+
+    private static final Map<Order.Status, Order.Status> PREVIOUS = new EnumMap<>(Order.Status.class);
+
+    static {
+        PREVIOUS.put(Order.Status.ASSIGNED, Order.Status.PENDING);
+        PREVIOUS.put(Order.Status.PICKED_UP, Order.Status.ASSIGNED);
+        PREVIOUS.put(Order.Status.ON_DELIVERY, Order.Status.PICKED_UP);
+        PREVIOUS.put(Order.Status.DELIVERED, Order.Status.ON_DELIVERY);
+    }
+
+    public enum Outcome {
+        CHANGED, UNCHANGED, ILLEGAL, NOT_ASSIGNED, NOT_FOUND
+    }
+
+    /**
+     * {@code from} is the status the order was in: the predecessor when the
+     * move happened, otherwise the status that blocked it.
+     */
+    public record Result(Outcome outcome, Long orderId, Order.Status from, Order.Status to) {
+    }
+
+    /**
+     * Outcome of {@link #update}: the status transition, if one was asked
+     * for, and the order with its new totals, or null when no totals were
+     * written.
+     */
+    public record Update(Result transition, Order order) {
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CourierAssignmentRepository courierAssignmentRepository;
+
+    @Autowired
+    private CourierRegistryService courierRegistryService;
+
+    @Autowired
+    private OrderEventHub orderEventHub;
+
+    @Autowired
+    private OrderAnalyticsStore orderAnalyticsStore;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    /**
+     * Moves the order to {@code to}. With a courier id the update only applies
+     * while the order is assigned to that courier.
+     */
+    @Transactional
+    public Result advance(Long orderId, Long courierId, Order.Status to) {
+        Order.Status from = PREVIOUS.get(to);
+        if (from != null && to != Order.Status.ASSIGNED) {
+            int updated = courierId == null
+                    ? orderRepository.transition(orderId, from, to)
+                    : orderRepository.transitionForCourier(orderId, courierId, from, to);
+            if (updated == 1) {
+                changed(orderId, courierId, to);
+                return new Result(Outcome.CHANGED, orderId, from, to);
+            }
+        }
+        return explain(orderId, courierId, to);
+    }
+
+    /**
+     * Applies an admin edit in one transaction: first the status transition,
+     * then the totals, so a failed totals write rolls the status back too. A
+     * transition that is refused leaves the totals alone.
+     */
+    @Transactional
+    public Update update(Long orderId, Order.Status to, Double totalPrice, Double deliveryFee) {
+        Result transition = to != null ? advance(orderId, null, to) : null;
+        if (transition != null && transition.outcome() != Outcome.CHANGED
+                && transition.outcome() != Outcome.UNCHANGED) {
+            return new Update(transition, null);
+        }
+        if (totalPrice == null && deliveryFee == null) {
+            return new Update(transition, null);
+        }
+
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            return new Update(new Result(Outcome.NOT_FOUND, orderId, null, to), null);
+        }
+        Double previousTotal = order.getTotalPrice();
+        if (totalPrice != null) {
+            order.setTotalPrice(totalPrice);
+        }
+        if (deliveryFee != null) {
+            order.setDeliveryFee(deliveryFee);
+        }
+        Order updated = orderRepository.saveAndFlush(order);
+        AfterCommit.run(() -> {
+            revenueRollupService.adjust(updated.getCreatedAt(), previousTotal, updated.getTotalPrice());
+            orderAnalyticsStore.totalsChanged(orderId, updated.getTotalPrice(), updated.getDeliveryFee());
+        });
+        orderEventHub.publish(OrderEvent.of(OrderEvent.UPDATED, updated));
+        return new Update(transition, updated);
+    }
+
+    private Result explain(Long orderId, Long courierId, Order.Status to) {
+        List<Order.Status> statuses = orderRepository.findStatusById(orderId);
+        if (statuses.isEmpty()) {
+            return new Result(Outcome.NOT_FOUND, orderId, null, to);
+        }
+        if (courierId != null && !courierAssignmentRepository.existsByOrderIdAndCourierId(orderId, courierId)) {
+            return new Result(Outcome.NOT_ASSIGNED, orderId, null, to);
+        }
+        Order.Status current = statuses.get(0) != null ? statuses.get(0) : Order.Status.PENDING;
+        return new Result(current == to ? Outcome.UNCHANGED : Outcome.ILLEGAL, orderId, current, to);
+    }
+
+    private void changed(Long orderId, Long courierId, Order.Status to) {
+        Long courier = courierId != null ? courierId : courierRegistryService.courierFor(orderId);
+        Long customerId = orderEventHub.watchesCustomers()
+                ? orderRepository.findCustomerIdById(orderId).orElse(null)
+                : null;
+        AfterCommit.run(() -> {
+            courierRegistryService.orderStatusChanged(orderId, to);
+            orderAnalyticsStore.statusChanged(orderId, to);
+        });
+        orderEventHub.publish(new OrderEvent(OrderEvent.STATUS_CHANGED, orderId, customerId, courier, to,
+                Instant.now()));
+    }
+}
@@ -0,0 +1,109 @@
+package com.deliveryfood.backend.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt on a small dedicated pool so request threads never do the
+ * hashing themselves. The pool has a bounded queue and rejects work instead of
+ * growing it, and each account gets a fixed number of attempts per window.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final ThreadPoolExecutor executor;
+    private final int attemptsPerWindow;
+    private final long windowMillis;
+    private final Map<String, Window> attempts = new ConcurrentHashMap<>();
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    public PasswordHashingService(
+            @Value("${app.password-hashing.threads:0}") int threads,
+            @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.password-hashing.attempts-per-window:10}") int attemptsPerWindow,
+            @Value("${app.password-hashing.window-seconds:60}") int windowSeconds) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.attemptsPerWindow = attemptsPerWindow;
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @throws RejectedExecutionException when the hashing queue is full
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+    }
+
+    /**
+     * @throws RejectedExecutionException when the hashing queue is full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.matches(rawPassword, encodedPassword), executor);
+    }
+
+    /**
+     * Counts one attempt against the account. Returns 0 when the attempt is
+     * allowed, otherwise the number of seconds until the window resets.
+     */
+    public long tryAttempt(String email) {
+        long now = System.currentTimeMillis();
+        Window window = attempts.compute(key(email), (k, current) ->
+                current == null || now - current.startedAt >= windowMillis ? new Window(now) : current);
+        if (window.count.incrementAndGet() <= attemptsPerWindow) {
+            return 0;
+        }
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(window.startedAt + windowMillis - now + 999));
+    }
+
+    public void resetAttempts(String email) {
+        attempts.remove(key(email));
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredWindows() {
+        long now = System.currentTimeMillis();
+        attempts.values().removeIf(window -> now - window.startedAt >= windowMillis);
+    }
+
+    private static String key(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Window {
+        private final long startedAt;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Window(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
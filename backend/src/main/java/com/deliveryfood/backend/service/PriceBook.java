@@ -0,0 +1,167 @@
+package com.deliveryfood.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.OrderItem;
+
+/**
+ * Menu id to price and restaurant id, held in parallel primitive arrays with
+ * open addressing so a lookup is a multiply, a mask and a few array reads. The
+ * table is rebuilt by {@link MenuCatalogService} on every menu write and
+ * swapped in whole, so a quote always prices against one consistent version
+ * and never touches the database. Order creation prices through the same
+ * {@link #quote} as the quote endpoint.
+ */
+@Service
+public class PriceBook {
+
+    private volatile Table table = Table.build(0, List.of());
+
+    public record Line(Menu menu, int quantity, double price, double total) {
+    }
+
+    public record Quote(long version, List<Line> lines, int restaurantCount, double subtotal, double deliveryFee,
+            double total) {
+    }
+
+    public void load(long version, Collection<Menu> menus) {
+        table = Table.build(version, menus);
+    }
+
+    public long version() {
+        return table.version;
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Prices the requested menu ids and quantities. Items without a menu id
+     * are skipped, as on order creation; an unknown menu or a non-positive
+     * quantity is rejected with {@link IllegalArgumentException}.
+     */
+    public Quote quote(List<OrderItem> requestedItems) {
+        Table current = table;
+        List<Line> lines = new ArrayList<>();
+        long[] restaurants = new long[requestedItems != null ? requestedItems.size() : 0];
+        int restaurantCount = 0;
+        double subtotal = 0.0;
+
+        if (requestedItems != null) {
+            for (OrderItem requested : requestedItems) {
+                if (requested.getMenu() == null || requested.getMenu().getId() == null) {
+                    continue;
+                }
+                long menuId = requested.getMenu().getId();
+                int slot = current.slot(menuId);
+                if (slot < 0) {
+                    throw new IllegalArgumentException("Menu with ID " + menuId + " not found");
+                }
+                Integer quantity = requested.getQuantity();
+                if (quantity == null || quantity <= 0) {
+                    throw new IllegalArgumentException("Quantity for menu with ID " + menuId + " must be positive");
+                }
+
+                double price = current.prices[slot];
+                double total = price * quantity;
+                lines.add(new Line(current.menus[slot], quantity, price, total));
+                subtotal += total;
+
+                long restaurantId = current.restaurantIds[slot];
+                if (restaurantId != 0 && !contains(restaurants, restaurantCount, restaurantId)) {
+                    restaurants[restaurantCount++] = restaurantId;
+                }
+            }
+        }
+
+        double deliveryFee = deliveryFee(restaurantCount);
+        return new Quote(current.version, lines, restaurantCount, subtotal, deliveryFee, subtotal + deliveryFee);
+    }
+
+    public static double deliveryFee(int restaurantCount) {
+        return restaurantCount > 0 ? 5000 + (restaurantCount - 1) * 2000 : 0.0;
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Key 0 marks an empty slot; menu ids are identity-generated and start at 1.
+     */
+    private static final class Table {
+
+        final long version;
+        int size;
+        final int mask;
+        final long[] keys;
+        final double[] prices;
+        final long[] restaurantIds;
+        final Menu[] menus;
+
+        private Table(long version, int capacity) {
+            this.version = version;
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.prices = new double[capacity];
+            this.restaurantIds = new long[capacity];
+            this.menus = new Menu[capacity];
+        }
+
+        static Table build(long version, Collection<Menu> menus) {
+            int capacity = Integer.highestOneBit(Math.max(menus.size(), 4) * 2 - 1) << 1;
+            Table table = new Table(version, capacity);
+            for (Menu menu : menus) {
+                if (menu.getId() == null || menu.getId() <= 0 || menu.getPrice() == null) {
+                    continue;
+                }
+                long key = menu.getId();
+                int slot = table.hash(key);
+                while (table.keys[slot] != 0 && table.keys[slot] != key) {
+                    slot = (slot + 1) & table.mask;
+                }
+                if (table.keys[slot] == 0) {
+                    table.size++;
+                }
+                table.keys[slot] = key;
+                table.prices[slot] = menu.getPrice();
+                table.restaurantIds[slot] = menu.getRestaurant() != null && menu.getRestaurant().getId() != null
+                        ? menu.getRestaurant().getId()
+                        : 0;
+                table.menus[slot] = menu;
+            }
+            return table;
+        }
+
+        int slot(long key) {
+            if (key <= 0) {
+                return -1;
+            }
+            for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+                long candidate = keys[slot];
+                if (candidate == key) {
+                    return slot;
+                }
+                if (candidate == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        private int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
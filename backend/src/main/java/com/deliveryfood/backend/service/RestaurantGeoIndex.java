@@ -0,0 +1,223 @@
+package com.deliveryfood.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.model.Restaurant;
+import com.deliveryfood.backend.repository.RestaurantRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Uniform lat/lon grid over restaurant coordinates. Cells are 0.01 degrees
+ * (about 1.1 km), so a radius query only visits the cells under its bounding
+ * box and a nearest-k query expands ring by ring until no closer restaurant
+ * can exist.
+ */
+@Service
+public class RestaurantGeoIndex {
+
+    static final double CELL_DEGREES = 0.01;
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+    private static final int MAX_RING = 500;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<Restaurant>> cells = new HashMap<>();
+    private final Map<Long, Restaurant> restaurants = new HashMap<>();
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @PostConstruct
+    public void load() {
+        rebuild(restaurantRepository.findAll());
+    }
+
+    public void rebuild(Collection<Restaurant> all) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            restaurants.clear();
+            all.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Restaurant restaurant) {
+        lock.writeLock().lock();
+        try {
+            delete(restaurant.getId());
+            add(restaurant);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            delete(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Restaurant find(Long restaurantId) {
+        lock.readLock().lock();
+        try {
+            return restaurants.get(restaurantId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Nearby> within(double lat, double lon, double radiusKm, int limit) {
+        lock.readLock().lock();
+        try {
+            double latSpan = radiusKm / KM_PER_DEGREE;
+            double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+            int minLat = latIndex(lat - latSpan);
+            int maxLat = latIndex(lat + latSpan);
+            int minLon = lonIndex(lon - lonSpan);
+            int maxLon = lonIndex(lon + lonSpan);
+
+            List<Nearby> found = new ArrayList<>();
+            long cellCount = (long) (maxLat - minLat + 1) * (maxLon - minLon + 1);
+            if (cellCount > restaurants.size()) {
+                collect(restaurants.values(), lat, lon, radiusKm, found);
+            } else {
+                for (int la = minLat; la <= maxLat; la++) {
+                    for (int lo = minLon; lo <= maxLon; lo++) {
+                        List<Restaurant> cell = cells.get(key(la, lo));
+                        if (cell != null) {
+                            collect(cell, lat, lon, radiusKm, found);
+                        }
+                    }
+                }
+            }
+            return nearestFirst(found, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Nearby> nearest(double lat, double lon, int k) {
+        lock.readLock().lock();
+        try {
+            if (k <= 0 || restaurants.isEmpty()) {
+                return List.of();
+            }
+            if (restaurants.size() <= k) {
+                List<Nearby> all = new ArrayList<>();
+                collect(restaurants.values(), lat, lon, Double.MAX_VALUE, all);
+                return nearestFirst(all, k);
+            }
+
+            int centerLat = latIndex(lat);
+            int centerLon = lonIndex(lon);
+            double ringKm = CELL_DEGREES * KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+            List<Nearby> found = new ArrayList<>();
+            for (int ring = 0; ring <= MAX_RING; ring++) {
+                for (int la = centerLat - ring; la <= centerLat + ring; la++) {
+                    for (int lo = centerLon - ring; lo <= centerLon + ring; lo++) {
+                        if (Math.abs(la - centerLat) != ring && Math.abs(lo - centerLon) != ring) {
+                            continue;
+                        }
+                        List<Restaurant> cell = cells.get(key(la, lo));
+                        if (cell != null) {
+                            collect(cell, lat, lon, Double.MAX_VALUE, found);
+                        }
+                    }
+                }
+                if (found.size() >= k) {
+                    List<Nearby> best = nearestFirst(found, k);
+                    if (best.get(k - 1).distanceKm() <= ring * ringKm) {
+                        return best;
+                    }
+                }
+            }
+
+            List<Nearby> all = new ArrayList<>();
+            collect(restaurants.values(), lat, lon, Double.MAX_VALUE, all);
+            return nearestFirst(all, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Restaurant restaurant) {
+        if (restaurant.getId() == null || restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+            return;
+        }
+        restaurants.put(restaurant.getId(), restaurant);
+        cells.computeIfAbsent(cellOf(restaurant), k -> new ArrayList<>()).add(restaurant);
+    }
+
+    private void delete(Long restaurantId) {
+        Restaurant previous = restaurants.remove(restaurantId);
+        if (previous == null) {
+            return;
+        }
+        long key = cellOf(previous);
+        List<Restaurant> cell = cells.get(key);
+        if (cell != null) {
+            cell.removeIf(r -> r.getId().equals(restaurantId));
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static void collect(Collection<Restaurant> candidates, double lat, double lon, double radiusKm,
+            List<Nearby> found) {
+        for (Restaurant restaurant : candidates) {
+            double distance = distanceKm(lat, lon, restaurant.getLatitude(), restaurant.getLongitude());
+            if (distance <= radiusKm) {
+                found.add(new Nearby(restaurant, distance));
+            }
+        }
+    }
+
+    private static List<Nearby> nearestFirst(List<Nearby> found, int limit) {
+        found.sort(Comparator.comparingDouble(Nearby::distanceKm));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static long cellOf(Restaurant restaurant) {
+        return key(latIndex(restaurant.getLatitude()), lonIndex(restaurant.getLongitude()));
+    }
+
+    private static int latIndex(double lat) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, lat)) + 90) / CELL_DEGREES);
+    }
+
+    private static int lonIndex(double lon) {
+        return (int) Math.floor((lon + 180) / CELL_DEGREES);
+    }
+
+    private static long key(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    public record Nearby(Restaurant restaurant, double distanceKm) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.deliveryfood.backend.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.dto.RevenueFact;
+import com.deliveryfood.backend.repository.OrderRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Revenue pre-aggregated into 15-minute buckets keyed by epoch time. Every real
+ * timezone offset is a multiple of 15 minutes, so any bucket lies entirely
+ * inside one local day of any zone and can be rolled up to daily, monthly or
+ * yearly totals without touching the orders table.
+ */
+@Service
+public class RevenueRollupService {
+
+    static final long BUCKET_SECONDS = 15 * 60;
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @PostConstruct
+    public void load() {
+        buckets.clear();
+        for (RevenueFact fact : orderRepository.findRevenueFacts()) {
+            record(fact.createdAt(), fact.totalPrice());
+        }
+        orderArchive.forEach(order -> record(order.createdAt(), order.totalPrice()));
+    }
+
+    public void record(Instant createdAt, Double totalPrice) {
+        apply(createdAt, amount(totalPrice), 1);
+    }
+
+    public void adjust(Instant createdAt, Double oldTotal, Double newTotal) {
+        apply(createdAt, amount(newTotal) - amount(oldTotal), 0);
+    }
+
+    public void remove(Instant createdAt, Double totalPrice) {
+        apply(createdAt, -amount(totalPrice), -1);
+    }
+
+    public Report report(String type, LocalDate from, LocalDate to, ZoneId zone) {
+        ConcurrentNavigableMap<Long, Bucket> range = buckets;
+        if (from != null) {
+            range = range.tailMap(bucketOf(from.atStartOfDay(zone).toInstant()), true);
+        }
+        if (to != null) {
+            range = range.headMap(bucketOf(to.plusDays(1).atStartOfDay(zone).toInstant()), false);
+        }
+
+        Map<String, Double> report = new TreeMap<>();
+        long orders = 0;
+        String label = null;
+        long nextDayStart = Long.MIN_VALUE;
+        for (Map.Entry<Long, Bucket> entry : range.entrySet()) {
+            Bucket bucket = entry.getValue();
+            if (bucket.orders() == 0 && bucket.revenue() == 0) {
+                continue;
+            }
+            long startSecond = entry.getKey() * BUCKET_SECONDS;
+            if (startSecond >= nextDayStart) {
+                ZonedDateTime start = Instant.ofEpochSecond(startSecond).atZone(zone);
+                label = label(type, start);
+                nextDayStart = start.toLocalDate().plusDays(1).atStartOfDay(zone).toEpochSecond();
+            }
+            report.merge(label, bucket.revenue(), Double::sum);
+            orders += bucket.orders();
+        }
+        return new Report(report, orders);
+    }
+
+    private void apply(Instant createdAt, double revenue, long orders) {
+        if (createdAt == null) {
+            return;
+        }
+        buckets.merge(bucketOf(createdAt), new Bucket(revenue, orders), Bucket::plus);
+    }
+
+    private static long bucketOf(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), BUCKET_SECONDS);
+    }
+
+    private static double amount(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private static String label(String type, ZonedDateTime time) {
+        switch (type) {
+            case "monthly":
+                return time.getYear() + "-" + String.format("%02d", time.getMonthValue());
+            case "yearly":
+                return String.valueOf(time.getYear());
+            default:
+                return time.toLocalDate().toString();
+        }
+    }
+
+    record Bucket(double revenue, long orders) {
+        Bucket plus(Bucket other) {
+            return new Bucket(revenue + other.revenue, orders + other.orders);
+        }
+    }
+
+    public record Report(Map<String, Double> totals, long ordersCount) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.deliveryfood.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps the most recent slow SQL statements, plus a random sample of the fast
+ * ones, in a fixed-size ring buffer. Fast statements cost one comparison and,
+ * when sampling is on, one random draw; nothing is logged. Bind parameters are
+ * not captured, so entries hold the statement text only.
+ */
+@Service
+public class SlowQueryLog {
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter slowStatements;
+
+    public SlowQueryLog(@Value("${app.slow-query.threshold-ms:200}") long thresholdMillis,
+                        @Value("${app.slow-query.sample-rate:0}") double sampleRate,
+                        @Value("${app.slow-query.capacity:512}") int capacity,
+                        MeterRegistry registry) {
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+        this.sampleRate = sampleRate;
+        this.entries = new AtomicReferenceArray<>(Math.max(capacity, 1));
+        this.slowStatements = Counter.builder("db.statements.slow")
+                .description("SQL statements slower than app.slow-query.threshold-ms")
+                .register(registry);
+    }
+
+    public void record(String sql, long elapsedNanos) {
+        boolean slow = elapsedNanos >= thresholdNanos;
+        if (slow) {
+            slowStatements.increment();
+        } else if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long id = sequence.incrementAndGet();
+        Entry entry = new Entry(id, Instant.now(), elapsedNanos / 1_000, sql, !slow, currentRequest(),
+                Thread.currentThread().getName());
+        entries.set((int) (id % entries.length()), entry);
+    }
+
+    /**
+     * Entries newest first, optionally only the slow ones.
+     */
+    public List<Entry> recent(int limit, boolean slowOnly) {
+        List<Entry> result = new ArrayList<>();
+        long newest = sequence.get();
+        for (long id = newest; id > Math.max(0, newest - entries.length()) && result.size() < limit; id--) {
+            Entry entry = entries.get((int) (id % entries.length()));
+            if (entry != null && entry.id() == id && (!slowOnly || !entry.sampled())) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    public long thresholdMillis() {
+        return thresholdNanos / 1_000_000;
+    }
+
+    public double sampleRate() {
+        return sampleRate;
+    }
+
+    private static String currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            return servlet.getRequest().getMethod() + " " + servlet.getRequest().getRequestURI();
+        }
+        return null;
+    }
+
+    public record Entry(
+            long id,
+            Instant at,
+            long micros,
+            String sql,
+            boolean sampled,
+            String request,
+            String thread) {
+    }
+}
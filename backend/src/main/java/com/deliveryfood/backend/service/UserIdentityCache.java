@@ -0,0 +1,72 @@
+package com.deliveryfood.backend.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.repository.UserRepository;
+
+/**
+ * Id to role/name lookup for authorization checks. Entries are loaded on first
+ * use and dropped whenever the user is edited or deleted; a user that is not
+ * in the database is never cached, so presence means the account is active.
+ */
+@Service
+public class UserIdentityCache {
+
+    private final Map<Long, Identity> identities = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxEntries;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public UserIdentityCache(@Value("${app.identity-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<Identity> find(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        Identity cached = identities.get(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long seen = generation.get();
+        Optional<Identity> loaded = userRepository.findById(userId).map(Identity::of);
+        loaded.ifPresent(identity -> {
+            if (identities.size() >= maxEntries) {
+                identities.clear();
+            }
+            identities.putIfAbsent(userId, identity);
+            if (generation.get() != seen) {
+                identities.remove(userId);
+            }
+        });
+        return loaded;
+    }
+
+    public boolean hasRole(Long userId, User.Role role) {
+        return find(userId).map(identity -> identity.role() == role).orElse(false);
+    }
+
+    public void invalidate(Long userId) {
+        generation.incrementAndGet();
+        identities.remove(userId);
+    }
+
+    public record Identity(Long id, User.Role role, String name) {
+
+        static Identity of(User user) {
+            return new Identity(user.getId(), user.getRole(), user.getName());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.deliveryfood.backend.bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.deliveryfood.backend.BackendApplication;
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.repository.UserRepository;
+import com.deliveryfood.backend.service.OrderIntakeService;
+
+/**
+ * Runs the same mixed workload against the application without and then with
+ * the database admission semaphore and prints both results side by side. The app runs
+ * on in-memory H2 with every JDBC statement delayed to stand in for a MySQL
+ * round trip; most requests read the menu catalog (no database), the rest
+ * page through a customer's order history.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.deliveryfood.backend.bench.ExecutionModeBenchmark \
+ *     -Dbench.clients=400 -Dbench.seconds=15 -Dbench.db-latency-ms=20
+ * </pre>
+ *
+ * Both arms run on Tomcat's platform worker pool. A virtual-thread arm
+ * ({@code spring.threads.virtual.enabled}) needs a Java 21 toolchain, and the
+ * project builds for 17.
+ */
+public final class ExecutionModeBenchmark {
+
+	private ExecutionModeBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		int clients = Integer.getInteger("bench.clients", 400);
+		int seconds = Integer.getInteger("bench.seconds", 15);
+		int warmupSeconds = Integer.getInteger("bench.warmup-seconds", 3);
+		int dbPercent = Integer.getInteger("bench.db-percent", 20);
+		int tomcatThreads = Integer.getInteger("bench.tomcat-threads", 50);
+		int dbPermits = Integer.getInteger("bench.db-permits", 10);
+		SlowJdbc.latencyMillis = Integer.getInteger("bench.db-latency-ms", 20);
+
+		List<Result> results = new ArrayList<>();
+		results.add(run("pool", 0, clients, seconds, warmupSeconds, dbPercent, tomcatThreads));
+		results.add(run("admission", dbPermits, clients, seconds, warmupSeconds, dbPercent, tomcatThreads));
+
+		System.out.printf("%n%d clients, %ds measured, %d%% history requests, %dms per statement, "
+				+ "%d Tomcat threads%n", clients, seconds, dbPercent, SlowJdbc.latencyMillis, tomcatThreads);
+		System.out.printf("%-10s %10s %10s %20s %22s %8s%n",
+				"arm", "db permits", "req/s", "menus p50/p99 ms", "history p50/p99 ms", "errors");
+		for (Result r : results) {
+			System.out.printf("%-10s %10d %10.0f %20s %22s %8d%n", r.arm, r.dbPermits, r.throughput,
+					r.menus.summary(), r.history.summary(), r.errors);
+		}
+	}
+
+	private static Result run(String arm, int dbPermits, int clients, int seconds, int warmupSeconds,
+			int dbPercent, int tomcatThreads) throws Exception {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("server.port", 0);
+		properties.put("management.server.port", 0);
+		properties.put("server.tomcat.threads.max", tomcatThreads);
+		properties.put("app.execution.db-permits", dbPermits);
+		properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + arm
+				+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER,VALUE");
+		properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+		properties.put("spring.datasource.username", "sa");
+		properties.put("spring.datasource.password", "");
+		properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+		properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+		properties.put("logging.level.root", "WARN");
+		properties.put("logging.level.org.hibernate.SQL", "WARN");
+		properties.put("logging.level.org.hibernate.type", "WARN");
+		properties.put("logging.level.com.deliveryfood", "INFO");
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class,
+				SlowJdbc.class).run(properties.entrySet().stream()
+						.map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new))) {
+			Long customerId = seed(context);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			String base = "http://localhost:" + port;
+			URI menus = URI.create(base + "/menus/get");
+			URI history = URI.create(base + "/orders/customer/" + customerId + "/history?limit=5");
+
+			HttpClient client = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(10))
+					.build();
+			long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+			long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+
+			Latencies menuLatencies = new Latencies();
+			Latencies historyLatencies = new Latencies();
+			AtomicLong errors = new AtomicLong();
+			CountDownLatch done = new CountDownLatch(clients);
+			for (int i = 0; i < clients; i++) {
+				Thread thread = new Thread(() -> {
+					try {
+						while (true) {
+							boolean db = ThreadLocalRandom.current().nextInt(100) < dbPercent;
+							long start = System.nanoTime();
+							if (start >= end) {
+								return;
+							}
+							HttpRequest request = HttpRequest.newBuilder(db ? history : menus)
+									.timeout(Duration.ofSeconds(60)).GET().build();
+							int status;
+							try {
+								status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+							} catch (Exception e) {
+								status = -1;
+							}
+							long finished = System.nanoTime();
+							if (start < warmupEnd || finished > end) {
+								continue;
+							}
+							if (status != 200) {
+								errors.incrementAndGet();
+							} else {
+								(db ? historyLatencies : menuLatencies).add(finished - start);
+							}
+						}
+					} finally {
+						done.countDown();
+					}
+				}, "bench-client-" + i);
+				thread.setDaemon(true);
+				thread.start();
+			}
+			done.await();
+
+			long completed = menuLatencies.count() + historyLatencies.count();
+			return new Result(arm, dbPermits, completed / (double) seconds,
+					menuLatencies, historyLatencies, errors.get());
+		}
+	}
+
+	private static Long seed(ConfigurableApplicationContext context) {
+		User customer = new User();
+		customer.setName("Bench Customer");
+		customer.setEmail("bench@example.com");
+		customer.setRole(User.Role.CUSTOMER);
+		customer.setStreet("Jl. Benchmark 1");
+		customer.setCity("Indramayu");
+		customer.setPostalCode("45213");
+		customer.setPhone("0800");
+		customer = context.getBean(UserRepository.class).save(customer);
+
+		OrderIntakeService intake = context.getBean(OrderIntakeService.class);
+		for (int i = 0; i < 20; i++) {
+			intake.placeOrder(customer, List.of());
+		}
+		return customer.getId();
+	}
+
+	private record Result(String arm, int dbPermits, double throughput, Latencies menus, Latencies history,
+			long errors) {
+	}
+
+	/**
+	 * Delays every statement execution to emulate network latency to MySQL
+	 * while the connection is held.
+	 */
+	@Configuration
+	static class SlowJdbc {
+
+		static volatile int latencyMillis;
+
+		@Bean
+		static BeanPostProcessor slowJdbcPostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)) {
+						return new SlowDataSource(dataSource);
+					}
+					return bean;
+				}
+			};
+		}
+
+		static final class SlowDataSource extends DelegatingDataSource {
+
+			SlowDataSource(DataSource target) {
+				super(target);
+			}
+
+			@Override
+			public Connection getConnection() throws SQLException {
+				return proxy(Connection.class, super.getConnection());
+			}
+
+			@Override
+			public Connection getConnection(String username, String password) throws SQLException {
+				return proxy(Connection.class, super.getConnection(username, password));
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		static <T> T proxy(Class<T> type, T target) {
+			return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+				if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+					Thread.sleep(latencyMillis);
+				}
+				Object result;
+				try {
+					result = method.invoke(target, args);
+				} catch (InvocationTargetException e) {
+					throw e.getTargetException();
+				}
+				Class<?> returnType = method.getReturnType();
+				if (returnType.isInterface() && Statement.class.isAssignableFrom(returnType) && result != null) {
+					return proxy((Class<Object>) returnType, result);
+				}
+				return result;
+			});
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.deliveryfood.backend.bench;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Collects response times in nanoseconds and reports percentiles in
+ * milliseconds.
+ */
+final class Latencies {
+	private long[] values = new long[1024];
+	private int size;
+
+	synchronized void add(long nanos) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = nanos;
+	}
+
+	synchronized long count() {
+		return size;
+	}
+
+	synchronized void forEach(LongConsumer consumer) {
+		for (int i = 0; i < size; i++) {
+			consumer.accept(values[i]);
+		}
+	}
+
+	synchronized String summary() {
+		if (size == 0) {
+			return "-";
+		}
+		long[] sorted = Arrays.copyOf(values, size);
+		Arrays.sort(sorted);
+		return String.format("%.1f / %.1f", percentile(sorted, 0.50), percentile(sorted, 0.99));
+	}
+
+	synchronized double percentile(double p) {
+		if (size == 0) {
+			return Double.NaN;
+		}
+		long[] sorted = Arrays.copyOf(values, size);
+		Arrays.sort(sorted);
+		return percentile(sorted, p);
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+		return sorted[Math.max(index, 0)] / 1_000_000.0;
+	}
+}
@@ -0,0 +1,509 @@
+package com.deliveryfood.backend.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.deliveryfood.backend.BackendApplication;
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.Restaurant;
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.repository.MenuRepository;
+import com.deliveryfood.backend.repository.RestaurantRepository;
+import com.deliveryfood.backend.repository.UserRepository;
+import com.deliveryfood.backend.service.CourierRegistryService;
+import com.deliveryfood.backend.service.MenuCatalogService;
+import com.deliveryfood.backend.service.MenuSearchService;
+import com.deliveryfood.backend.service.RestaurantGeoIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Starts the application on in-memory H2 in MySQL mode, seeds restaurants,
+ * menus, customers and couriers, and replays a mixed workload at fixed
+ * arrival rates: browsing and searching menus, adding to carts, placing
+ * orders, dispatching them to couriers and walking them through delivery.
+ * Each scenario fires on its own schedule whether or not earlier requests have
+ * answered, and latency is measured from the scheduled send time, so a
+ * stalled server shows up in the percentiles instead of silently lowering the
+ * offered load.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.deliveryfood.backend.bench.LoadSimulation \
+ *     -Dload.seconds=60 -Dload.rates=browse=100,order=10,dispatch=10,status=30
+ * </pre>
+ *
+ * Rates are requests per second; scenarios left out of {@code load.rates}
+ * keep their defaults and a rate of 0 disables one. Dispatch and status
+ * updates only act on orders this run has created, so their effective rate
+ * is bounded by the order rate. {@code load.db-latency-ms} delays every JDBC
+ * statement to stand in for a network hop to MySQL.
+ * {@code load.auto-dispatch=true} turns on the background dispatch engine;
+ * set the dispatch rate to 0 with it so the engine does all assignments.
+ */
+public final class LoadSimulation {
+
+	private static final Map<String, Double> DEFAULT_RATES = new LinkedHashMap<>();
+
+	static {
+		DEFAULT_RATES.put("browse", 20.0);
+		DEFAULT_RATES.put("restaurant", 10.0);
+		DEFAULT_RATES.put("search", 10.0);
+		DEFAULT_RATES.put("cart", 10.0);
+		DEFAULT_RATES.put("order", 5.0);
+		DEFAULT_RATES.put("dispatch", 5.0);
+		DEFAULT_RATES.put("status", 15.0);
+		DEFAULT_RATES.put("history", 5.0);
+	}
+
+	private static final String[] SEARCH_TERMS = { "bakso", "mie ayam", "nasi goreng", "sate", "es teh", "pedas" };
+	private static final String[] DISHES = { "Bakso Urat", "Mie Ayam Bakso", "Nasi Goreng Spesial", "Sate Ayam",
+			"Es Teh Manis", "Soto Betawi", "Ayam Geprek Pedas", "Gado Gado", "Rendang", "Pempek Kapal Selam" };
+	private static final Order.Status[] DELIVERY_STEPS = { Order.Status.PICKED_UP, Order.Status.ON_DELIVERY,
+			Order.Status.DELIVERED };
+
+	private final ObjectMapper json = new ObjectMapper();
+	private final Queue<Long> createdOrders = new ConcurrentLinkedQueue<>();
+	private final Queue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+
+	private String base;
+	private Seed seed;
+
+	private LoadSimulation() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		int seconds = Integer.getInteger("load.seconds", 30);
+		int warmupSeconds = Integer.getInteger("load.warmup-seconds", 5);
+		int maxInFlight = Integer.getInteger("load.max-in-flight", 512);
+		int dbLatencyMillis = Integer.getInteger("load.db-latency-ms", 0);
+		Map<String, Double> rates = rates(System.getProperty("load.rates", ""));
+
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("server.port", 0);
+		properties.put("management.server.port", 0);
+		properties.put("app.dispatch.enabled", System.getProperty("load.auto-dispatch", "false"));
+		properties.put("spring.datasource.url", "jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+				+ "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;NON_KEYWORDS=USER,VALUE");
+		properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+		properties.put("spring.datasource.username", "sa");
+		properties.put("spring.datasource.password", "");
+		properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+		properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+		properties.put("logging.level.root", "WARN");
+		properties.put("logging.level.org.hibernate.SQL", "WARN");
+		properties.put("logging.level.org.hibernate.type", "WARN");
+
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(BackendApplication.class);
+		if (dbLatencyMillis > 0) {
+			ExecutionModeBenchmark.SlowJdbc.latencyMillis = dbLatencyMillis;
+			builder.sources(ExecutionModeBenchmark.SlowJdbc.class);
+		}
+		try (ConfigurableApplicationContext context = builder.run(properties.entrySet().stream()
+				.map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new))) {
+			LoadSimulation simulation = new LoadSimulation();
+			simulation.base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+			simulation.seed = seed(context);
+			simulation.run(rates, seconds, warmupSeconds, maxInFlight);
+		}
+	}
+
+	private void run(Map<String, Double> rates, int seconds, int warmupSeconds, int maxInFlight)
+			throws InterruptedException {
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+		long warmupEnd = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+		long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+
+		List<Scenario> scenarios = new ArrayList<>();
+		List<Thread> pacers = new ArrayList<>();
+		for (Map.Entry<String, Double> rate : rates.entrySet()) {
+			if (rate.getValue() <= 0) {
+				continue;
+			}
+			Scenario scenario = new Scenario(rate.getKey(), rate.getValue());
+			scenarios.add(scenario);
+			Thread pacer = new Thread(() -> pace(scenario, inFlight, start, warmupEnd, end), "load-" + rate.getKey());
+			pacer.setDaemon(true);
+			pacer.start();
+			pacers.add(pacer);
+		}
+		for (Thread pacer : pacers) {
+			pacer.join();
+		}
+		if (!inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS)) {
+			System.out.println("Some requests were still running 30s after the run ended");
+		}
+
+		System.out.printf("%n%d restaurants, %d menus, %d customers, %d couriers; %ds measured after %ds warmup%n",
+				seed.restaurantIds.size(), seed.menus.size(), seed.customerIds.size(), seed.courierIds.size(),
+				seconds, warmupSeconds);
+		System.out.printf("%-12s %9s %9s %9s %8s %8s %8s %9s %9s %9s%n", "scenario", "target/s", "done/s",
+				"ok", "errors", "dropped", "idle", "p50 ms", "p99 ms", "max ms");
+		long totalOk = 0;
+		Latencies all = new Latencies();
+		for (Scenario s : scenarios) {
+			long ok = s.latencies.count();
+			totalOk += ok;
+			s.latencies.forEach(all::add);
+			System.out.printf("%-12s %9.1f %9.1f %9d %8d %8d %8d %9.1f %9.1f %9.1f%n", s.name, s.rate,
+					ok / (double) seconds, ok, s.errors.get(), s.dropped.get(), s.idle.get(),
+					s.latencies.percentile(0.50), s.latencies.percentile(0.99), s.latencies.percentile(1.0));
+		}
+		System.out.printf("%-12s %9s %9.1f %9d %8s %8s %8s %9.1f %9.1f %9.1f%n", "total", "", totalOk / (double) seconds,
+				totalOk, "", "", "", all.percentile(0.50), all.percentile(0.99), all.percentile(1.0));
+	}
+
+	/**
+	 * Sends one request of the scenario per interval, catching up without
+	 * delay when it falls behind. Requests that find {@code load.max-in-flight}
+	 * requests outstanding are dropped and counted rather than queued.
+	 */
+	private void pace(Scenario scenario, Semaphore inFlight, long start, long warmupEnd, long end) {
+		long interval = (long) (1_000_000_000L / scenario.rate);
+		for (long scheduled = start; scheduled < end; scheduled += interval) {
+			long wait = scheduled - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			boolean measured = scheduled >= warmupEnd;
+			Call call = next(scenario.name);
+			if (call == null) {
+				if (measured) {
+					scenario.idle.incrementAndGet();
+				}
+				continue;
+			}
+			if (!inFlight.tryAcquire()) {
+				if (measured) {
+					scenario.dropped.incrementAndGet();
+				}
+				call.abandon();
+				continue;
+			}
+			long sentAt = scheduled;
+			HttpResponse.BodyHandler<String> bodyHandler = call.readsBody
+					? HttpResponse.BodyHandlers.ofString()
+					: HttpResponse.BodyHandlers.replacing(null);
+			client.sendAsync(call.request, bodyHandler).whenComplete((response, error) -> {
+				try {
+					long elapsed = System.nanoTime() - sentAt;
+					boolean ok = error == null && response.statusCode() == 200
+							&& (!call.readsBody || call.handle(response.body()));
+					if (!measured) {
+						return;
+					}
+					if (ok) {
+						scenario.latencies.add(elapsed);
+					} else {
+						scenario.errors.incrementAndGet();
+					}
+				} finally {
+					inFlight.release();
+				}
+			});
+		}
+	}
+
+	private Call next(String scenario) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Long customerId = seed.customerIds.get(random.nextInt(seed.customerIds.size()));
+		switch (scenario) {
+			case "browse":
+				return Call.get(uri("/menus/get"));
+			case "restaurant":
+				return Call.get(uri("/menus/restaurant/" + pick(seed.restaurantIds)));
+			case "search":
+				return Call.get(uri("/menus/search?q=" + pick(SEARCH_TERMS).replace(" ", "+")));
+			case "history":
+				return Call.get(uri("/orders/customer/" + customerId + "/history?limit=10"));
+			case "cart": {
+				Menu menu = pick(seed.menus);
+				return Call.post(uri("/cart"), "{\"user\":{\"id\":" + customerId + "},\"menu\":{\"id\":"
+						+ menu.getId() + "},\"quantity\":" + (1 + random.nextInt(3)) + "}");
+			}
+			case "order":
+				return createOrder(customerId);
+			case "dispatch":
+				return dispatch();
+			case "status":
+				return advance();
+			default:
+				throw new IllegalArgumentException("Unknown scenario " + scenario + ", expected one of "
+						+ DEFAULT_RATES.keySet());
+		}
+	}
+
+	private Call createOrder(Long customerId) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Long restaurantId = pick(seed.restaurantIds);
+		List<Menu> menus = seed.menusByRestaurant.get(restaurantId);
+		StringBuilder items = new StringBuilder();
+		int count = 1 + random.nextInt(3);
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				items.append(',');
+			}
+			items.append("{\"menu\":{\"id\":").append(pick(menus).getId())
+					.append("},\"quantity\":").append(1 + random.nextInt(2)).append('}');
+		}
+		String body = "{\"customer\":{\"id\":" + customerId + "},\"status\":\"PENDING\",\"items\":[" + items + "]}";
+		return new Call(post(uri("/orders/create"), body), true) {
+			@Override
+			boolean handle(String response) {
+				JsonNode id = read(response).path("data").path("order").path("id");
+				if (!id.canConvertToLong()) {
+					return false;
+				}
+				createdOrders.add(id.asLong());
+				return true;
+			}
+		};
+	}
+
+	private Call dispatch() {
+		Long orderId = createdOrders.poll();
+		if (orderId == null) {
+			return null;
+		}
+		Long courierId = pick(seed.courierIds);
+		return new Call(post(uri("/courier-assignments/assign/" + orderId + "/" + courierId), ""), true) {
+			@Override
+			boolean handle(String response) {
+				if (!read(response).path("data").path("id").canConvertToLong()) {
+					return false;
+				}
+				deliveries.add(new Delivery(orderId, courierId, 0));
+				return true;
+			}
+
+			@Override
+			void abandon() {
+				createdOrders.add(orderId);
+			}
+		};
+	}
+
+	private Call advance() {
+		Delivery delivery = deliveries.poll();
+		if (delivery == null) {
+			return null;
+		}
+		Order.Status status = DELIVERY_STEPS[delivery.step];
+		HttpRequest request = HttpRequest.newBuilder(uri("/courier-assignments/update-status/" + delivery.orderId + "/"
+				+ delivery.courierId + "?status=" + status)).timeout(Duration.ofSeconds(60))
+				.PUT(HttpRequest.BodyPublishers.noBody()).build();
+		return new Call(request, true) {
+			@Override
+			boolean handle(String response) {
+				if (!status.name().equals(read(response).path("data").path("status").asText())) {
+					return false;
+				}
+				if (delivery.step + 1 < DELIVERY_STEPS.length) {
+					deliveries.add(new Delivery(delivery.orderId, delivery.courierId, delivery.step + 1));
+				}
+				return true;
+			}
+
+			@Override
+			void abandon() {
+				deliveries.add(delivery);
+			}
+		};
+	}
+
+	private JsonNode read(String body) {
+		try {
+			return json.readTree(body);
+		} catch (Exception e) {
+			return json.missingNode();
+		}
+	}
+
+	private URI uri(String path) {
+		return URI.create(base + path);
+	}
+
+	private static HttpRequest post(URI uri, String body) {
+		return HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+	}
+
+	private static <T> T pick(List<T> values) {
+		return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+	}
+
+	private static <T> T pick(T[] values) {
+		return values[ThreadLocalRandom.current().nextInt(values.length)];
+	}
+
+	private static Map<String, Double> rates(String spec) {
+		Map<String, Double> rates = new LinkedHashMap<>(DEFAULT_RATES);
+		for (String entry : spec.split(",")) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			String[] parts = entry.split("=", 2);
+			String name = parts[0].trim();
+			if (!DEFAULT_RATES.containsKey(name) || parts.length != 2) {
+				throw new IllegalArgumentException("Bad load.rates entry '" + entry + "', expected name=perSecond with "
+						+ "name one of " + DEFAULT_RATES.keySet());
+			}
+			rates.put(name, Double.parseDouble(parts[1].trim()));
+		}
+		return rates;
+	}
+
+	private static Seed seed(ConfigurableApplicationContext context) {
+		int restaurantCount = Integer.getInteger("load.restaurants", 50);
+		int menusPerRestaurant = Integer.getInteger("load.menus-per-restaurant", 20);
+		int customerCount = Integer.getInteger("load.customers", 500);
+		int courierCount = Integer.getInteger("load.couriers", 50);
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		List<Restaurant> restaurants = new ArrayList<>();
+		for (int i = 0; i < restaurantCount; i++) {
+			Restaurant restaurant = new Restaurant();
+			restaurant.setName("Warung " + (i + 1));
+			restaurant.setAddress("Jl. Raya " + (i + 1) + ", Indramayu");
+			restaurant.setPhone("0234" + (100000 + i));
+			restaurant.setLatitude(-6.33 + random.nextDouble(-0.1, 0.1));
+			restaurant.setLongitude(108.32 + random.nextDouble(-0.1, 0.1));
+			restaurants.add(restaurant);
+		}
+		restaurants = context.getBean(RestaurantRepository.class).saveAll(restaurants);
+
+		List<Menu> menus = new ArrayList<>();
+		for (Restaurant restaurant : restaurants) {
+			for (int i = 0; i < menusPerRestaurant; i++) {
+				Menu menu = new Menu();
+				menu.setName(DISHES[(i + restaurant.getId().intValue()) % DISHES.length] + " " + (i + 1));
+				menu.setDescription("Menu " + (i + 1) + " dari " + restaurant.getName());
+				menu.setPrice(5000.0 + 1000 * random.nextInt(40));
+				menu.setRestaurant(restaurant);
+				menus.add(menu);
+			}
+		}
+		menus = context.getBean(MenuRepository.class).saveAll(menus);
+
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < customerCount; i++) {
+			User customer = new User();
+			customer.setName("Customer " + (i + 1));
+			customer.setEmail("customer" + (i + 1) + "@load.test");
+			customer.setRole(User.Role.CUSTOMER);
+			customer.setStreet("Jl. Pelanggan " + (i + 1));
+			customer.setCity("Indramayu");
+			customer.setPostalCode("45213");
+			customer.setPhone("0812" + (1000000 + i));
+			users.add(customer);
+		}
+		for (int i = 0; i < courierCount; i++) {
+			User courier = new User();
+			courier.setName("Courier " + (i + 1));
+			courier.setEmail("courier" + (i + 1) + "@load.test");
+			courier.setRole(User.Role.COURIER);
+			users.add(courier);
+		}
+		users = context.getBean(UserRepository.class).saveAll(users);
+
+		context.getBean(MenuCatalogService.class).refresh();
+		context.getBean(MenuSearchService.class).load();
+		context.getBean(RestaurantGeoIndex.class).load();
+		context.getBean(CourierRegistryService.class).load();
+
+		Seed seed = new Seed();
+		restaurants.forEach(r -> seed.restaurantIds.add(r.getId()));
+		seed.menus.addAll(menus);
+		menus.forEach(m -> seed.menusByRestaurant.computeIfAbsent(m.getRestaurant().getId(), id -> new ArrayList<>())
+				.add(m));
+		for (User user : users) {
+			(user.getRole() == User.Role.COURIER ? seed.courierIds : seed.customerIds).add(user.getId());
+		}
+		return seed;
+	}
+
+	private static final class Seed {
+		final List<Long> restaurantIds = new ArrayList<>();
+		final List<Menu> menus = new ArrayList<>();
+		final Map<Long, List<Menu>> menusByRestaurant = new LinkedHashMap<>();
+		final List<Long> customerIds = new ArrayList<>();
+		final List<Long> courierIds = new ArrayList<>();
+	}
+
+	private record Delivery(Long orderId, Long courierId, int step) {
+	}
+
+	private static final class Scenario {
+		final String name;
+		final double rate;
+		final Latencies latencies = new Latencies();
+		final AtomicLong errors = new AtomicLong();
+		final AtomicLong dropped = new AtomicLong();
+		final AtomicLong idle = new AtomicLong();
+
+		Scenario(String name, double rate) {
+			this.name = name;
+			this.rate = rate;
+		}
+	}
+
+	/**
+	 * A request plus what to do with its response. Calls that read the body
+	 * return false from {@link #handle} when it shows the call did not do what
+	 * it should; the rest only check the status code.
+	 */
+	private static class Call {
+		final HttpRequest request;
+		final boolean readsBody;
+
+		Call(HttpRequest request) {
+			this(request, false);
+		}
+
+		Call(HttpRequest request, boolean readsBody) {
+			this.request = request;
+			this.readsBody = readsBody;
+		}
+
+		static Call get(URI uri) {
+			return new Call(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build());
+		}
+
+		static Call post(URI uri, String body) {
+			return new Call(LoadSimulation.post(uri, body));
+		}
+
+		boolean handle(String body) {
+			return true;
+		}
+
+		void abandon() {
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package com.deliveryfood.backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.deliveryfood.backend.config.QueryCountFilter;
+import com.deliveryfood.backend.model.CourierAssignment;
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.OrderItem;
+import com.deliveryfood.backend.model.Restaurant;
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.repository.MenuRepository;
+import com.deliveryfood.backend.repository.OrderRepository;
+import com.deliveryfood.backend.repository.RestaurantRepository;
+import com.deliveryfood.backend.repository.UserRepository;
+import com.deliveryfood.backend.service.CourierRegistryService;
+import com.deliveryfood.backend.service.MenuCatalogService;
+import com.deliveryfood.backend.service.OrderIntakeService;
+import com.deliveryfood.backend.service.UserIdentityCache;
+
+/**
+ * Pins the number of SQL statements the read endpoints and courier status
+ * pings run. Every customer and courier has several orders with several items,
+ * so a lazy association loaded per row pushes the count over budget.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTests {
+
+	private static final int ORDERS = 12;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RestaurantRepository restaurantRepository;
+
+	@Autowired
+	private MenuRepository menuRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderIntakeService orderIntakeService;
+
+	@Autowired
+	private MenuCatalogService menuCatalogService;
+
+	@Autowired
+	private CourierRegistryService courierRegistryService;
+
+	@Autowired
+	private UserIdentityCache userIdentityCache;
+
+	private Long customerId;
+	private Long courierId;
+	private final List<Long> assignedOrderIds = new ArrayList<>();
+
+	@BeforeAll
+	void seed() {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setName("Bakso Pak Kumis");
+		restaurant.setLatitude(-6.47);
+		restaurant.setLongitude(108.30);
+		restaurant = restaurantRepository.save(restaurant);
+
+		List<Menu> menus = new ArrayList<>();
+		for (String name : List.of("Bakso Urat", "Mie Ayam", "Es Teh")) {
+			Menu menu = new Menu();
+			menu.setName(name);
+			menu.setPrice(15000.0);
+			menu.setRestaurant(restaurant);
+			menus.add(menu);
+		}
+		menus = menuRepository.saveAll(menus);
+		menuCatalogService.refresh();
+
+		User customer = user("Budi", User.Role.CUSTOMER);
+		customer.setStreet("Jl. Merdeka 1");
+		customer.setCity("Indramayu");
+		customer.setPostalCode("45213");
+		customer.setPhone("0812");
+		customerId = userRepository.save(customer).getId();
+		User courier = userRepository.save(user("Kurir", User.Role.COURIER));
+		courierId = courier.getId();
+
+		for (int i = 0; i < ORDERS; i++) {
+			List<OrderItem> items = new ArrayList<>();
+			for (Menu menu : menus) {
+				OrderItem item = new OrderItem();
+				item.setMenu(menu);
+				item.setQuantity(1 + i % 2);
+				items.add(item);
+			}
+			Order order = orderIntakeService.placeOrder(customer, items);
+			if (i % 2 == 0) {
+				CourierAssignment assignment = new CourierAssignment();
+				assignment.setOrder(order);
+				assignment.setCourier(courier);
+				order.setCourierAssignment(assignment);
+				order.setStatus(Order.Status.ASSIGNED);
+				assignedOrderIds.add(orderRepository.save(order).getId());
+			}
+		}
+		courierRegistryService.load();
+	}
+
+	@Test
+	void catalogAndRegistryReadsDoNotTouchTheDatabase() throws Exception {
+		assertThat(statements("/menus/get")).isZero();
+		assertThat(statements("/courier-assignments/available-couriers")).isZero();
+	}
+
+	@Test
+	void unassignedOrdersIsOneQuery() throws Exception {
+		assertThat(statements("/courier-assignments/unassigned-orders")).isEqualTo(1);
+	}
+
+	@Test
+	void courierOrdersDoesNotLoadOrdersOneByOne() throws Exception {
+		assertThat(statements("/courier-assignments/courier-orders/" + courierId)).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void historyLoadsItemsInOneQuery() throws Exception {
+		assertThat(statements("/orders/customer/" + customerId + "/history?limit=" + ORDERS)).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void courierStatusPingIsOneStatement() throws Exception {
+		Long orderId = assignedOrderIds.get(0);
+		userIdentityCache.find(courierId);
+		assertThat(statements(put("/courier-assignments/update-status/" + orderId + "/" + courierId)
+				.param("status", "PICKED_UP"), status().isOk())).isEqualTo(1);
+
+		mockMvc.perform(put("/courier-assignments/update-status/" + orderId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"ASSIGNED\"}"))
+				.andExpect(status().isConflict());
+	}
+
+	private int statements(String url) throws Exception {
+		return statements(get(url), status().isOk());
+	}
+
+	private int statements(RequestBuilder request, ResultMatcher expected) throws Exception {
+		MvcResult result = mockMvc.perform(request).andExpect(expected).andReturn();
+		String count = result.getResponse().getHeader(QueryCountFilter.STATEMENTS_HEADER);
+		assertThat(count).as("query count header on " + result.getRequest().getRequestURI()).isNotNull();
+		return Integer.parseInt(count);
+	}
+
+	private static User user(String name, User.Role role) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name.toLowerCase() + "@example.com");
+		user.setRole(role);
+		return user;
+	}
+}
@@ -0,0 +1,21 @@
+package com.deliveryfood.backend.service;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Restaurant;
+
+final class MenuFixtures {
+
+	private MenuFixtures() {
+	}
+
+	static Menu menu(Long id, Long restaurantId, double price) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(restaurantId);
+		Menu menu = new Menu();
+		menu.setId(id);
+		menu.setName("Menu " + id);
+		menu.setPrice(price);
+		menu.setRestaurant(restaurant);
+		return menu;
+	}
+}
@@ -0,0 +1,61 @@
+package com.deliveryfood.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Restaurant;
+
+class MenuSearchServiceTests {
+
+	private final MenuSearchService search = new MenuSearchService();
+
+	@BeforeEach
+	void setUp() {
+		search.rebuild(List.of(
+				menu(1L, 10L, "Bakso Urat", "bakso urat pedas"),
+				menu(2L, 20L, "Mie Ayam Bakso", "mie ayam dengan bakso"),
+				menu(3L, 20L, "Es Teh Manis", "teh manis dingin"),
+				menu(4L, 30L, "Ayam Geprek", "ayam goreng sambal bawang")));
+	}
+
+	@Test
+	void ranksMenusMatchingEveryTermFirst() {
+		List<MenuSearchService.Hit> hits = search.search("ayam bakso", null, 10);
+
+		assertThat(hits).extracting(MenuSearchService.Hit::menuId).containsExactly(2L, 4L, 1L);
+		assertThat(hits.get(0).matchedTerms()).isEqualTo(2);
+	}
+
+	@Test
+	void matchesPrefixesAndSubstringsAndFiltersByRestaurant() {
+		assertThat(search.search("gepr", null, 10)).extracting(MenuSearchService.Hit::menuId).containsExactly(4L);
+		assertThat(search.search("eprek", null, 10)).extracting(MenuSearchService.Hit::menuId).containsExactly(4L);
+		assertThat(search.search("bakso", 20L, 10)).extracting(MenuSearchService.Hit::menuId).containsExactly(2L);
+	}
+
+	@Test
+	void reindexesAndRemovesIncrementally() {
+		search.index(menu(3L, 20L, "Es Jeruk", "jeruk peras"));
+		search.remove(1L);
+
+		assertThat(search.search("teh", null, 10)).isEmpty();
+		assertThat(search.search("jeruk", null, 10)).extracting(MenuSearchService.Hit::menuId).containsExactly(3L);
+		assertThat(search.search("urat", null, 10)).isEmpty();
+	}
+
+	private static Menu menu(Long id, Long restaurantId, String name, String description) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(restaurantId);
+		Menu menu = new Menu();
+		menu.setId(id);
+		menu.setName(name);
+		menu.setDescription(description);
+		menu.setRestaurant(restaurant);
+		return menu;
+	}
+}
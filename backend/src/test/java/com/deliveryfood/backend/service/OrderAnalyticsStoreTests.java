@@ -0,0 +1,128 @@
+package com.deliveryfood.backend.service;
+
+import static com.deliveryfood.backend.service.MenuFixtures.menu;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.OrderItem;
+
+class OrderAnalyticsStoreTests {
+
+	private static final int ORDERS = 30_000;
+	private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+	private final OrderAnalyticsStore store = new OrderAnalyticsStore(4);
+
+	@BeforeEach
+	void setUp() {
+		List<Menu> menus = new ArrayList<>();
+		for (long id = 1; id <= 4; id++) {
+			menus.add(menu(id, id <= 2 ? 10L : 20L, 1000.0 * id));
+		}
+		for (long id = 1; id <= ORDERS; id++) {
+			Order order = new Order();
+			order.setId(id);
+			order.setCreatedAt(EPOCH.plusSeconds(id * 60));
+			order.setStatus(Order.Status.PENDING);
+			List<OrderItem> items = new ArrayList<>();
+			items.add(item(menus.get(0), 2));
+			items.add(item(menus.get((int) (id % 4)), 1));
+			order.setItems(items);
+			double subtotal = items.stream().mapToDouble(OrderItem::getTotalPriceItem).sum();
+			order.setDeliveryFee(id % 4 < 2 ? 5000.0 : 7000.0);
+			order.setTotalPrice(subtotal + order.getDeliveryFee());
+			store.orderPlaced(order);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.shutdown();
+	}
+
+	@Test
+	void groupsRevenueByRestaurantAcrossParallelScans() {
+		List<OrderAnalyticsStore.RestaurantRevenue> rows = store.revenueByRestaurant(all());
+
+		// every order has 2 x menu 1; a quarter each add menu 1, 2, 3 or 4
+		int quarter = ORDERS / 4;
+		assertThat(rows).extracting(OrderAnalyticsStore.RestaurantRevenue::restaurantId).containsExactly(10L, 20L);
+		assertThat(rows.get(0).quantity()).isEqualTo(2L * ORDERS + 2L * quarter);
+		assertThat(rows.get(0).revenue()).isEqualTo(2000.0 * ORDERS + 1000.0 * quarter + 2000.0 * quarter);
+		assertThat(rows.get(1).revenue()).isEqualTo(3000.0 * quarter + 4000.0 * quarter);
+	}
+
+	@Test
+	void ranksMenusAndFiltersByTimeAndStatus() {
+		assertThat(store.topMenus(all(), null, false, 1))
+				.extracting(OrderAnalyticsStore.MenuSales::menuId).containsExactly(1L);
+		assertThat(store.topMenus(all(), 20L, true, 10))
+				.extracting(OrderAnalyticsStore.MenuSales::menuId).containsExactly(4L, 3L);
+
+		Instant to = EPOCH.plusSeconds(100 * 60 + 1);
+		assertThat(store.deliveryFeeShare(new OrderAnalyticsStore.Filter(null, to, null)).orders()).isEqualTo(100);
+		assertThat(store.deliveryFeeShare(new OrderAnalyticsStore.Filter(null, null, Order.Status.DELIVERED))
+				.orders()).isZero();
+	}
+
+	@Test
+	void patchesCourierStatusAndTombstones() {
+		store.courierAssigned(1L, 99L);
+		store.courierAssigned(2L, 99L);
+		store.statusChanged(1L, Order.Status.DELIVERED);
+		store.orderRemoved(3L);
+
+		List<OrderAnalyticsStore.CourierThroughput> couriers = store.courierThroughput(all());
+		assertThat(couriers).hasSize(1);
+		assertThat(couriers.get(0).assigned()).isEqualTo(2);
+		assertThat(couriers.get(0).delivered()).isEqualTo(1);
+
+		OrderAnalyticsStore.FeeShare share = store.deliveryFeeShare(all());
+		assertThat(share.orders()).isEqualTo(ORDERS - 1);
+		assertThat(share.share()).isBetween(0.0, 1.0);
+	}
+
+	@Test
+	void appliesUpdatesThatArriveBeforeTheOrder() {
+		// the dispatcher claimed the order before the placement callback ran
+		Long id = ORDERS + 1L;
+		store.courierAssigned(id, 77L);
+		store.statusChanged(id, Order.Status.ASSIGNED);
+
+		Order order = new Order();
+		order.setId(id);
+		order.setCreatedAt(EPOCH);
+		order.setStatus(Order.Status.PENDING);
+		order.setItems(new ArrayList<>());
+		order.setTotalPrice(6000.0);
+		order.setDeliveryFee(5000.0);
+		store.orderPlaced(order);
+
+		assertThat(store.courierThroughput(all()))
+				.extracting(OrderAnalyticsStore.CourierThroughput::courierId).containsExactly(77L);
+		assertThat(store.deliveryFeeShare(new OrderAnalyticsStore.Filter(null, null, Order.Status.ASSIGNED))
+				.orders()).isEqualTo(1);
+	}
+
+	private static OrderAnalyticsStore.Filter all() {
+		return new OrderAnalyticsStore.Filter(null, null, null);
+	}
+
+	private static OrderItem item(Menu menu, int quantity) {
+		OrderItem item = new OrderItem();
+		item.setMenu(menu);
+		item.setQuantity(quantity);
+		item.setPrice(menu.getPrice());
+		item.setTotalPriceItem(menu.getPrice() * quantity);
+		return item;
+	}
+}
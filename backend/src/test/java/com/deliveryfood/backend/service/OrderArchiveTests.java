@@ -0,0 +1,149 @@
+package com.deliveryfood.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.deliveryfood.backend.dto.ArchivedItem;
+import com.deliveryfood.backend.dto.ArchivedOrder;
+import com.deliveryfood.backend.model.Order;
+
+class OrderArchiveTests {
+
+	private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+	@TempDir
+	Path dir;
+
+	private OrderArchive archive;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		archive = new OrderArchive(dir.toString());
+		archive.open(ids -> false);
+
+		// customers 1..5, 200 orders each, spread over two segments
+		List<ArchivedOrder> first = new ArrayList<>();
+		List<ArchivedOrder> second = new ArrayList<>();
+		for (long id = 1; id <= 1000; id++) {
+			(id % 2 == 0 ? first : second).add(order(id, 1 + id % 5));
+		}
+		archive.write(first).publish();
+		archive.write(second).publish();
+	}
+
+	@Test
+	void pagesCustomerHistoryNewestFirstAcrossSegments() {
+		List<ArchivedOrder> page = archive.history(3L, null, null, 50);
+
+		assertThat(page).hasSize(50);
+		assertThat(page).allMatch(order -> order.customerId() == 3L);
+		assertThat(page.get(0).id()).isEqualTo(997L);
+		assertThat(page.get(1).id()).isEqualTo(992L);
+		assertThat(page.get(0).items()).extracting(ArchivedItem::menuName).containsExactly("Menu 1", "Menu 2");
+
+		ArchivedOrder last = page.get(page.size() - 1);
+		List<ArchivedOrder> next = archive.history(3L, last.createdAt(), last.id(), 1000);
+		assertThat(next).hasSize(150);
+		assertThat(next.get(0).id()).isEqualTo(last.id() - 5);
+		assertThat(next.get(next.size() - 1).id()).isEqualTo(2L);
+		assertThat(archive.history(6L, null, null, 10)).isEmpty();
+	}
+
+	@Test
+	void reopensPublishedSegmentsAndDropsUnpublishedOnes() throws Exception {
+		archive.write(List.of(order(5000L, 1L))).discard();
+
+		OrderArchive reopened = new OrderArchive(dir.toString());
+		reopened.open(ids -> false);
+
+		assertThat(reopened.segmentCount()).isEqualTo(2);
+		assertThat(reopened.orderCount()).isEqualTo(1000);
+		List<Long> ids = new ArrayList<>();
+		reopened.forEach(order -> ids.add(order.id()));
+		assertThat(ids).hasSize(1000).doesNotHaveDuplicates().doesNotContain(5000L);
+		try (var files = Files.list(dir)) {
+			assertThat(files).noneMatch(file -> file.toString().endsWith(".tmp"));
+		}
+	}
+
+	@Test
+	void recoversUnpublishedSegmentsOnlyWhenTheirDeleteCommitted() throws Exception {
+		// Neither is published, as after a crash between commit and rename
+		archive.write(List.of(order(5001L, 1L), order(5002L, 1L)));
+		archive.write(List.of(order(6001L, 1L)));
+
+		OrderArchive reopened = new OrderArchive(dir.toString());
+		reopened.open(ids -> ids.contains(6001L));
+
+		assertThat(reopened.segmentCount()).isEqualTo(3);
+		assertThat(reopened.history(1L, null, null, 2)).extracting(ArchivedOrder::id).containsExactly(5002L, 5001L);
+		assertThat(reopened.orderCount()).isEqualTo(1002);
+		try (var files = Files.list(dir)) {
+			assertThat(files).noneMatch(file -> file.toString().endsWith(".tmp"));
+		}
+	}
+
+	@Test
+	void mergesSegmentsOfTheSameSizeClass() throws Exception {
+		List<ArchivedOrder> third = new ArrayList<>();
+		List<ArchivedOrder> fourth = new ArrayList<>();
+		for (long id = 1001; id <= 2000; id++) {
+			(id % 2 == 0 ? third : fourth).add(order(id, 1 + id % 5));
+		}
+		archive.write(third).publish();
+		archive.write(fourth).publish();
+		List<Path> inputs;
+		try (var files = Files.list(dir)) {
+			inputs = files.toList();
+		}
+		byte[] leftover = Files.readAllBytes(inputs.get(0));
+
+		assertThat(archive.compact()).isEqualTo(1);
+		assertThat(archive.segmentCount()).isEqualTo(1);
+		assertThat(archive.orderCount()).isEqualTo(2000);
+		List<ArchivedOrder> page = archive.history(3L, null, null, 1000);
+		assertThat(page).hasSize(400);
+		assertThat(page.get(0).id()).isEqualTo(1997L);
+		assertThat(page.get(399).id()).isEqualTo(2L);
+		assertThat(inputs).noneMatch(Files::exists);
+
+		// An input that survived a crash after the merge was renamed into place
+		Files.write(inputs.get(0), leftover);
+		OrderArchive reopened = new OrderArchive(dir.toString());
+		reopened.open(ids -> false);
+		assertThat(reopened.segmentCount()).isEqualTo(1);
+		assertThat(reopened.orderCount()).isEqualTo(2000);
+		assertThat(inputs.get(0)).doesNotExist();
+	}
+
+	@Test
+	void keepsNullsAndStatus() throws Exception {
+		archive.write(List.of(new ArchivedOrder(7000L, 9L, null, Order.Status.DELIVERED, EPOCH, null, 5000.0, null)))
+				.publish();
+
+		ArchivedOrder read = archive.history(9L, null, null, 1).get(0);
+		assertThat(read.courierId()).isNull();
+		assertThat(read.totalPrice()).isNull();
+		assertThat(read.courierName()).isNull();
+		assertThat(read.status()).isEqualTo(Order.Status.DELIVERED);
+		assertThat(read.createdAt()).isEqualTo(EPOCH);
+		assertThat(read.items()).isEmpty();
+	}
+
+	private static ArchivedOrder order(long id, long customerId) {
+		List<ArchivedItem> items = List.of(
+				new ArchivedItem(id, id * 10, 1L, 10L, "Menu 1", "/uploads/1.png", 2, 1000.0, 2000.0),
+				new ArchivedItem(id, id * 10 + 1, 2L, 10L, "Menu 2", null, 1, 3000.0, 3000.0));
+		return new ArchivedOrder(id, customerId, 50L, Order.Status.DELIVERED, EPOCH.plusSeconds(id * 60), 10000.0,
+				5000.0, "Courier", items);
+	}
+}
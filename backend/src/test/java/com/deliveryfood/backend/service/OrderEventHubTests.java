@@ -0,0 +1,114 @@
+package com.deliveryfood.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.deliveryfood.backend.dto.OrderEvent;
+import com.deliveryfood.backend.model.Order;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderEventHubTests {
+
+	private final OrderEventHub hub = new OrderEventHub(new OrderMetrics(new SimpleMeterRegistry()), 1, 8, 4);
+	private final CountDownLatch unblock = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		unblock.countDown();
+		hub.shutdown();
+	}
+
+	@Test
+	void stalledSubscribersDoNotHoldUpOthers() throws Exception {
+		List<RecordingEmitter> stalled = new ArrayList<>();
+		for (long orderId = 1; orderId <= 4; orderId++) {
+			RecordingEmitter emitter = new RecordingEmitter(unblock);
+			hub.subscribe("order:" + orderId, emitter);
+			stalled.add(emitter);
+		}
+		RecordingEmitter healthy = new RecordingEmitter(null);
+		hub.subscribe("order:5", healthy);
+
+		for (long orderId = 1; orderId <= 5; orderId++) {
+			hub.publish(event(orderId));
+		}
+
+		// the subscribe comment, then the event
+		assertThat(healthy.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+		assertThat(healthy.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+		for (RecordingEmitter emitter : stalled) {
+			assertThat(emitter.sent).isEmpty();
+		}
+	}
+
+	@Test
+	void disconnectsASubscriberThatFallsTooFarBehind() throws Exception {
+		RecordingEmitter stalled = new RecordingEmitter(unblock);
+		hub.subscribe("order:1", stalled);
+		assertThat(stalled.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+		for (int i = 0; i < 5; i++) {
+			hub.publish(event(1L));
+		}
+		assertThat(stalled.failed.getCount()).isEqualTo(1);
+
+		// completed by its own writer once the stuck send returns
+		unblock.countDown();
+		assertThat(stalled.failed.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(stalled.sent).hasSize(1);
+
+		hub.publish(event(1L));
+		Thread.sleep(200);
+		assertThat(stalled.sent).hasSize(1);
+	}
+
+	private static OrderEvent event(long orderId) {
+		return new OrderEvent(OrderEvent.STATUS_CHANGED, orderId, null, null, Order.Status.ASSIGNED, Instant.now());
+	}
+
+	/**
+	 * Records sends instead of writing them; with a gate, every send first
+	 * waits for it, like a write to a client that stopped reading.
+	 */
+	private static final class RecordingEmitter extends SseEmitter {
+		private final CountDownLatch gate;
+		private final CountDownLatch sending = new CountDownLatch(1);
+		private final CountDownLatch failed = new CountDownLatch(1);
+		private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+
+		RecordingEmitter(CountDownLatch gate) {
+			this.gate = gate;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			sending.countDown();
+			if (gate != null) {
+				try {
+					gate.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			sent.add(builder);
+		}
+
+		@Override
+		public synchronized void completeWithError(Throwable ex) {
+			failed.countDown();
+			super.completeWithError(ex);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.deliveryfood.backend.service;
+
+import static com.deliveryfood.backend.service.MenuFixtures.menu;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.OrderItem;
+
+class PriceBookTests {
+
+	private final PriceBook priceBook = new PriceBook();
+
+	@BeforeEach
+	void setUp() {
+		List<Menu> menus = new ArrayList<>();
+		for (long id = 1; id <= 100; id++) {
+			menus.add(menu(id, 1 + id % 3, 1000.0 * id));
+		}
+		priceBook.load(7, menus);
+	}
+
+	@Test
+	void quotesItemsAndChargesPerExtraRestaurant() {
+		PriceBook.Quote quote = priceBook.quote(List.of(item(3L, 2), item(4L, 1), item(6L, 1)));
+
+		assertThat(quote.version()).isEqualTo(7);
+		assertThat(quote.lines()).extracting(PriceBook.Line::total).containsExactly(6000.0, 4000.0, 6000.0);
+		assertThat(quote.restaurantCount()).isEqualTo(2);
+		assertThat(quote.subtotal()).isEqualTo(16000.0);
+		assertThat(quote.deliveryFee()).isEqualTo(7000.0);
+		assertThat(quote.total()).isEqualTo(23000.0);
+	}
+
+	@Test
+	void rejectsUnknownMenusAndBadQuantities() {
+		assertThatThrownBy(() -> priceBook.quote(List.of(item(101L, 1))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("101");
+		assertThatThrownBy(() -> priceBook.quote(List.of(item(5L, 0))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void reloadReplacesPrices() {
+		priceBook.load(8, List.of(menu(5L, 1L, 2500.0)));
+
+		assertThat(priceBook.size()).isEqualTo(1);
+		assertThat(priceBook.quote(List.of(item(5L, 2))).subtotal()).isEqualTo(5000.0);
+		assertThatThrownBy(() -> priceBook.quote(List.of(item(6L, 1))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static OrderItem item(Long menuId, int quantity) {
+		Menu ref = new Menu();
+		ref.setId(menuId);
+		OrderItem item = new OrderItem();
+		item.setMenu(ref);
+		item.setQuantity(quantity);
+		return item;
+	}
+}
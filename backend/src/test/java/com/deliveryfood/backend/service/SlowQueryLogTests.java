@@ -0,0 +1,36 @@
+package com.deliveryfood.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SlowQueryLogTests {
+
+	private static final long MS = 1_000_000;
+
+	@Test
+	void keepsOnlyStatementsOverTheThresholdWhenSamplingIsOff() {
+		SlowQueryLog log = new SlowQueryLog(100, 0, 8, new SimpleMeterRegistry());
+
+		log.record("select fast", 5 * MS);
+		log.record("select slow", 150 * MS);
+
+		assertThat(log.recent(10, false)).extracting(SlowQueryLog.Entry::sql).containsExactly("select slow");
+		assertThat(log.recent(10, false).get(0).micros()).isEqualTo(150_000);
+	}
+
+	@Test
+	void overwritesTheOldestEntriesAndReturnsNewestFirst() {
+		SlowQueryLog log = new SlowQueryLog(100, 1.0, 3, new SimpleMeterRegistry());
+
+		for (int i = 1; i <= 5; i++) {
+			log.record("q" + i, (i % 2 == 0 ? 200 : 1) * MS);
+		}
+
+		assertThat(log.recent(10, false)).extracting(SlowQueryLog.Entry::sql).containsExactly("q5", "q4", "q3");
+		assertThat(log.recent(10, true)).extracting(SlowQueryLog.Entry::sql).containsExactly("q4");
+		assertThat(log.recent(2, false)).extracting(SlowQueryLog.Entry::sql).containsExactly("q5", "q4");
+	}
+}
@@ -0,0 +1,126 @@
+package com.deliveryfood.benchmarks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.OrderItem;
+import com.deliveryfood.backend.model.Restaurant;
+import com.deliveryfood.backend.model.User;
+import com.deliveryfood.backend.service.OrderIntakeService;
+import com.deliveryfood.backend.service.PriceBook;
+
+/**
+ * Deterministic in-memory data shaped like production rows. Every generator
+ * takes a fixed seed so runs are comparable.
+ */
+final class Fixtures {
+
+    static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    static final long SPAN_SECONDS = Duration.ofDays(730).toSeconds();
+
+    private Fixtures() {
+    }
+
+    static Map<Long, Menu> menus(int count, int restaurants) {
+        List<Restaurant> restos = new ArrayList<>();
+        for (long r = 1; r <= restaurants; r++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId(r);
+            restaurant.setName("Restaurant " + r);
+            restaurant.setAddress("Jl. Raya No. " + r);
+            restaurant.setPhone("0812000" + r);
+            restaurant.setLatitude(-6.3 - r * 0.01);
+            restaurant.setLongitude(108.3 + r * 0.01);
+            restos.add(restaurant);
+        }
+
+        Map<Long, Menu> menus = new LinkedHashMap<>();
+        for (long m = 1; m <= count; m++) {
+            Menu menu = new Menu();
+            menu.setId(m);
+            menu.setName("Menu " + m);
+            menu.setDescription("Nasi, ayam, sambal dan lalapan nomor " + m);
+            menu.setPrice(10000.0 + (m % 20) * 1500);
+            menu.setImageUrl("/menus/uploads/" + m + ".jpg");
+            menu.setRestaurant(restos.get((int) ((m - 1) % restaurants)));
+            menus.put(m, menu);
+        }
+        return menus;
+    }
+
+    static PriceBook priceBook(Map<Long, Menu> menus) {
+        PriceBook priceBook = new PriceBook();
+        priceBook.load(1, menus.values());
+        return priceBook;
+    }
+
+    /**
+     * Item requests as they arrive in a create-order body: only the menu id
+     * and quantity are set.
+     */
+    static List<OrderItem> requestedItems(Map<Long, Menu> menus, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Long> ids = new ArrayList<>(menus.keySet());
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Menu ref = new Menu();
+            ref.setId(ids.get(random.nextInt(ids.size())));
+            OrderItem item = new OrderItem();
+            item.setMenu(ref);
+            item.setQuantity(1 + random.nextInt(4));
+            items.add(item);
+        }
+        return items;
+    }
+
+    static User customer() {
+        User customer = new User();
+        customer.setId(42L);
+        customer.setName("Budi Santoso");
+        customer.setEmail("budi@example.com");
+        customer.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4K2yG8XWl0bIq6N1w0mXnUu");
+        customer.setRole(User.Role.CUSTOMER);
+        customer.setStreet("Jl. Sudirman 10");
+        customer.setCity("Indramayu");
+        customer.setPostalCode("45213");
+        customer.setPhone("081234567890");
+        return customer;
+    }
+
+    static Order pricedOrder(long id, Map<Long, Menu> menus, PriceBook priceBook, int items, long seed) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomer(customer());
+        order.setStatus(Order.Status.PENDING);
+        order.setCreatedAt(EPOCH.plusSeconds(id * 37));
+        OrderIntakeService.price(order, priceBook.quote(requestedItems(menus, items, seed)));
+        long itemId = id * 100;
+        for (OrderItem item : order.getItems()) {
+            item.setId(itemId++);
+        }
+        return order;
+    }
+
+    /**
+     * Orders with only the fields the revenue report reads, spread uniformly
+     * over two years.
+     */
+    static List<Order> revenueOrders(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setCreatedAt(EPOCH.plusSeconds(random.nextLong(SPAN_SECONDS)));
+            order.setTotalPrice(15000.0 + random.nextInt(200) * 500);
+            orders.add(order);
+        }
+        return orders;
+    }
+}
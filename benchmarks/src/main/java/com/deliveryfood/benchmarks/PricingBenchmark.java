@@ -0,0 +1,68 @@
+package com.deliveryfood.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.model.OrderItem;
+import com.deliveryfood.backend.service.OrderIntakeService;
+import com.deliveryfood.backend.service.PriceBook;
+
+/**
+ * Pricing of a create-order request against the in-memory price book: item
+ * totals, distinct restaurants and the delivery fee.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    @Param({ "1", "5", "20" })
+    private int items;
+
+    private PriceBook priceBook;
+    private List<OrderItem> requested;
+    private int restaurantCount;
+
+    @Setup
+    public void setUp() {
+        Map<Long, Menu> menus = Fixtures.menus(500, 50);
+        priceBook = Fixtures.priceBook(menus);
+        requested = Fixtures.requestedItems(menus, items, 7);
+        restaurantCount = items;
+    }
+
+    @Benchmark
+    public PriceBook.Quote quote() {
+        return priceBook.quote(requested);
+    }
+
+    @Benchmark
+    public Order priceOrder() {
+        Order order = new Order();
+        OrderIntakeService.price(order, priceBook.quote(requested));
+        return order;
+    }
+
+    @Benchmark
+    public double deliveryFee() {
+        return PriceBook.deliveryFee(restaurantCount);
+    }
+}
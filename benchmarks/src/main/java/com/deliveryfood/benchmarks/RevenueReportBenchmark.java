@@ -0,0 +1,81 @@
+package com.deliveryfood.benchmarks;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.service.RevenueRollupService;
+
+/**
+ * Revenue report grouping. {@code streamGrouping} is the original
+ * controller logic over every loaded order; {@code rollupReport} reads the
+ * 15-minute buckets kept by {@link RevenueRollupService}. Loading rows from
+ * the database is not included in either.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Benchmark)
+public class RevenueReportBenchmark {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Jakarta");
+
+    @Param({ "10000", "1000000", "10000000" })
+    private int orderCount;
+
+    @Param({ "daily", "monthly" })
+    private String type;
+
+    private List<Order> all;
+    private RevenueRollupService rollup;
+
+    @Setup
+    public void setUp() {
+        all = Fixtures.revenueOrders(orderCount, 11);
+        rollup = new RevenueRollupService();
+        for (Order order : all) {
+            rollup.record(order.getCreatedAt(), order.getTotalPrice());
+        }
+    }
+
+    @Benchmark
+    public Map<String, Double> streamGrouping() {
+        if (type.equals("monthly")) {
+            return all.stream().collect(Collectors.groupingBy(
+                    o -> {
+                        LocalDate date = o.getCreatedAt().atZone(ZONE).toLocalDate();
+                        return date.getYear() + "-" + String.format("%02d", date.getMonthValue());
+                    },
+                    TreeMap::new,
+                    Collectors.summingDouble(Order::getTotalPrice)));
+        }
+        return all.stream().collect(Collectors.groupingBy(
+                o -> o.getCreatedAt().atZone(ZONE).toLocalDate().toString(),
+                TreeMap::new,
+                Collectors.summingDouble(Order::getTotalPrice)));
+    }
+
+    @Benchmark
+    public RevenueRollupService.Report rollupReport() {
+        return rollup.report(type, null, null, ZONE);
+    }
+}
@@ -0,0 +1,97 @@
+package com.deliveryfood.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.deliveryfood.backend.model.Menu;
+import com.deliveryfood.backend.model.Order;
+import com.deliveryfood.backend.service.PriceBook;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Jackson serialization of the Order, OrderItem, Menu and Restaurant graph
+ * and of the {@code message}/{@code data} envelopes the controllers return,
+ * with the mapper configured the way Spring Boot configures it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({ "1", "5", "20" })
+    private int itemsPerOrder;
+
+    @Param({ "1", "50" })
+    private int listSize;
+
+    private ObjectMapper mapper;
+    private Order order;
+    private Map<String, Object> createOrderEnvelope;
+    private Map<String, Object> listEnvelope;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        Map<Long, Menu> menus = Fixtures.menus(500, 50);
+        PriceBook priceBook = Fixtures.priceBook(menus);
+        List<Order> list = new ArrayList<>();
+        for (int i = 0; i < listSize; i++) {
+            list.add(Fixtures.pricedOrder(i + 1, menus, priceBook, itemsPerOrder, i));
+        }
+        order = list.get(0);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("order", order);
+        data.put("address", Map.of(
+                "street", order.getCustomer().getStreet(),
+                "city", order.getCustomer().getCity(),
+                "postalCode", order.getCustomer().getPostalCode(),
+                "phone", order.getCustomer().getPhone()));
+        createOrderEnvelope = new LinkedHashMap<>();
+        createOrderEnvelope.put("message", "Order successfully created");
+        createOrderEnvelope.put("data", data);
+
+        listEnvelope = new LinkedHashMap<>();
+        listEnvelope.put("message", "Successfully retrieved all orders");
+        listEnvelope.put("data", list);
+    }
+
+    @Benchmark
+    public byte[] orderGraph() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] createOrderEnvelope() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(createOrderEnvelope);
+    }
+
+    @Benchmark
+    public byte[] orderListEnvelope() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(listEnvelope);
+    }
+}